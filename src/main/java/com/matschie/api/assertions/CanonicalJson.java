@@ -0,0 +1,190 @@
+package com.matschie.api.assertions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Canonical form of a parsed JSON document, so responses that differ only in key order, number
+ * formatting or volatile fields compare equal: object keys sorted, ignored fields dropped at any depth,
+ * numbers rounded to a fixed scale without trailing zeros, array order kept.
+ * <p>
+ * {@link #hash} walks the document once and feeds the canonical text to SHA-256 through a small buffer,
+ * so the canonical string is never built; {@link #toCanonicalString} builds it for storage, and
+ * {@link #diff} compares two documents structurally when their hashes differ.
+ */
+public final class CanonicalJson {
+
+	private static final int FLUSH_THRESHOLD = 8 * 1024;
+
+	private final Set<String> ignoredFields;
+	private final int scale;
+
+	/**
+	 * @param ignoredFields field names left out wherever they occur, e.g. "distance"
+	 * @param scale decimal places numbers are rounded to
+	 */
+	public CanonicalJson(Set<String> ignoredFields, int scale) {
+		this.ignoredFields = Set.copyOf(ignoredFields);
+		this.scale = scale;
+	}
+
+	/**
+	 * @param root parsed document (JSONObject, JSONArray or a scalar)
+	 * @return SHA-256 of the canonical form
+	 */
+	public byte[] hash(Object root) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+		final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+		final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+		write(root, buffer, () -> {
+			final ByteBuffer bytes;
+			try {
+				bytes = encoder.encode(CharBuffer.wrap(buffer));
+			} catch (CharacterCodingException e) {
+				throw new IllegalArgumentException("JSON text is not valid UTF-16", e);
+			}
+			digest.update(bytes);
+			buffer.setLength(0);
+		});
+		digest.update(buffer.toString().getBytes(StandardCharsets.UTF_8));
+		return digest.digest();
+	}
+
+	/**
+	 * @param root parsed document
+	 * @return canonical text, compact
+	 */
+	public String toCanonicalString(Object root) {
+		final StringBuilder text = new StringBuilder();
+		write(root, text, () -> {
+		});
+		return text.toString();
+	}
+
+	/**
+	 * Structural difference between two documents, compared in canonical form.
+	 * @param expected baseline document
+	 * @param actual current document
+	 * @param maxDifferences stop after this many differences
+	 * @return one line per difference, e.g. {@code $[3].address.postCode: expected "EH1 1AA" but was "EH1 1AB"}
+	 */
+	public List<String> diff(Object expected, Object actual, int maxDifferences) {
+		final List<String> differences = new ArrayList<>();
+		diff("$", expected, actual, differences, maxDifferences);
+		return differences;
+	}
+
+	private void diff(String path, Object expected, Object actual, List<String> differences, int max) {
+		if (differences.size() >= max) {
+			return;
+		}
+		if (expected instanceof JSONObject expectedObject && actual instanceof JSONObject actualObject) {
+			final Set<String> keys = new TreeSet<>(expectedObject.keySet());
+			keys.addAll(actualObject.keySet());
+			keys.removeAll(ignoredFields);
+			for (String key : keys) {
+				final String child = path + "." + key;
+				if (!actualObject.has(key)) {
+					add(differences, max, child + ": missing (expected " + canonical(expectedObject.get(key)) + ")");
+				} else if (!expectedObject.has(key)) {
+					add(differences, max, child + ": unexpected " + canonical(actualObject.get(key)));
+				} else {
+					diff(child, expectedObject.get(key), actualObject.get(key), differences, max);
+				}
+			}
+		} else if (expected instanceof JSONArray expectedArray && actual instanceof JSONArray actualArray) {
+			if (expectedArray.length() != actualArray.length()) {
+				add(differences, max, path + ": expected " + expectedArray.length() + " elements but was " + actualArray.length());
+			}
+			final int common = Math.min(expectedArray.length(), actualArray.length());
+			for (int i = 0; i < common; i++) {
+				diff(path + "[" + i + "]", expectedArray.get(i), actualArray.get(i), differences, max);
+			}
+		} else {
+			final String expectedText = canonical(expected);
+			final String actualText = canonical(actual);
+			if (!expectedText.equals(actualText)) {
+				add(differences, max, path + ": expected " + expectedText + " but was " + actualText);
+			}
+		}
+	}
+
+	private static void add(List<String> differences, int max, String difference) {
+		if (differences.size() < max) {
+			differences.add(difference);
+		}
+	}
+
+	private String canonical(Object value) {
+		final String text = toCanonicalString(value);
+		return text.length() > 120 ? text.substring(0, 117) + "..." : text;
+	}
+
+	private void write(Object value, StringBuilder out, Runnable flush) {
+		if (out.length() >= FLUSH_THRESHOLD) {
+			flush.run();
+		}
+		if (value instanceof JSONObject object) {
+			out.append('{');
+			boolean first = true;
+			for (String key : new TreeSet<>(object.keySet())) {
+				if (ignoredFields.contains(key)) {
+					continue;
+				}
+				if (!first) {
+					out.append(',');
+				}
+				first = false;
+				out.append(JSONObject.quote(key)).append(':');
+				write(object.get(key), out, flush);
+			}
+			out.append('}');
+		} else if (value instanceof JSONArray array) {
+			out.append('[');
+			for (int i = 0; i < array.length(); i++) {
+				if (i > 0) {
+					out.append(',');
+				}
+				write(array.get(i), out, flush);
+			}
+			out.append(']');
+		} else if (value instanceof Number number) {
+			out.append(number(number));
+		} else if (value == null || JSONObject.NULL.equals(value)) {
+			out.append("null");
+		} else if (value instanceof Boolean) {
+			out.append(value);
+		} else {
+			out.append(JSONObject.quote(value.toString()));
+		}
+	}
+
+	private String number(Number number) {
+		if (number instanceof Integer || number instanceof Long) {
+			return number.toString();
+		}
+		final BigDecimal decimal = number instanceof BigDecimal big ? big : new BigDecimal(number.toString());
+		final BigDecimal rounded = decimal.setScale(scale, RoundingMode.HALF_UP).stripTrailingZeros();
+		return rounded.signum() == 0 ? "0" : rounded.toPlainString();
+	}
+
+}
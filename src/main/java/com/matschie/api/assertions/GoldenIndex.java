@@ -0,0 +1,216 @@
+package com.matschie.api.assertions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.json.JSONTokener;
+
+/**
+ * Golden snapshots of API responses, keyed by request fingerprint, for detecting behavioural drift
+ * across many queries. Only hashes are compared on the hot path:
+ * <pre>
+ * &lt;dir&gt;/index.bin              sorted (request key, 128-bit response hash) records, 24 bytes each
+ * &lt;dir&gt;/bodies/ab/abcd...json  canonical baseline body per request, read only when a hash differs
+ * </pre>
+ * The request key is the first 64 bits of SHA-256 over the request fingerprint, and the response hash the
+ * first 128 bits of the {@link CanonicalJson} hash; the index is held as three sorted {@code long[]} and
+ * searched binary, so 100k baselines take about 2.4 MB.
+ * <p>
+ * In {@link Mode#RECORD} mode, checks store new baselines (replacing existing ones) and {@link #save()}
+ * rewrites the index. Thread-safe.
+ */
+public final class GoldenIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(GoldenIndex.class.getName());
+
+	private static final int MAGIC = 0x47494458; // "GIDX"
+	private static final int VERSION = 1;
+	private static final int MAX_DIFFERENCES = 20;
+	private static final HexFormat HEX = HexFormat.of();
+
+	public enum Mode {
+		OFF, VERIFY, RECORD
+	}
+
+	private final Path directory;
+	private final Mode mode;
+	private final CanonicalJson canonical;
+	private final long[] keys;
+	private final long[] hashHigh;
+	private final long[] hashLow;
+	private final Map<Long, long[]> recorded = new ConcurrentHashMap<>();
+	private final AtomicLong matched = new AtomicLong();
+	private final AtomicLong differed = new AtomicLong();
+	private final AtomicLong unknown = new AtomicLong();
+
+	/**
+	 * Load the index in a directory; a missing directory is an empty index.
+	 * @param directory golden snapshot directory
+	 * @param mode VERIFY to compare, RECORD to store baselines
+	 * @param canonical canonical form responses are hashed and compared in
+	 * @throws UncheckedIOException if the index exists but cannot be read
+	 */
+	public GoldenIndex(Path directory, Mode mode, CanonicalJson canonical) {
+		this.directory = directory;
+		this.mode = mode;
+		this.canonical = canonical;
+		final Path index = directory.resolve("index.bin");
+		if (!Files.isRegularFile(index)) {
+			keys = new long[0];
+			hashHigh = new long[0];
+			hashLow = new long[0];
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index), 1 << 16))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IllegalStateException(index + " is not a golden index (version " + VERSION + ")");
+			}
+			final int count = in.readInt();
+			keys = new long[count];
+			hashHigh = new long[count];
+			hashLow = new long[count];
+			for (int i = 0; i < count; i++) {
+				keys[i] = in.readLong();
+				hashHigh[i] = in.readLong();
+				hashLow[i] = in.readLong();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read golden index " + index, e);
+		}
+		LOGGER.info(() -> "Golden index " + directory + ": " + keys.length + " baselines (" + mode + ")");
+	}
+
+	/**
+	 * Compare a response with its baseline, or record it as the baseline in RECORD mode.
+	 * Requests without a baseline are counted but do not fail.
+	 * @param requestFingerprint stable description of the request, e.g. "GET /parcelshop?city=Edinburgh&amp;postcode=EH1"
+	 * @param document parsed response (status and body)
+	 * @throws AssertionError listing the structural differences if the response does not match its baseline
+	 */
+	public void check(String requestFingerprint, Object document) {
+		if (mode == Mode.OFF) {
+			return;
+		}
+		final long key = requestKey(requestFingerprint);
+		final byte[] digest = canonical.hash(document);
+		final ByteBuffer hash = ByteBuffer.wrap(digest);
+		final long high = hash.getLong();
+		final long low = hash.getLong();
+
+		if (mode == Mode.RECORD) {
+			recorded.put(key, new long[] {high, low});
+			writeBody(key, canonical.toCanonicalString(document));
+			return;
+		}
+
+		final int index = Arrays.binarySearch(keys, key);
+		if (index < 0) {
+			unknown.incrementAndGet();
+			return;
+		}
+		if (hashHigh[index] == high && hashLow[index] == low) {
+			matched.incrementAndGet();
+			return;
+		}
+		differed.incrementAndGet();
+		final List<String> differences = canonical.diff(readBody(key), document, MAX_DIFFERENCES);
+		throw new AssertionError("Response differs from golden snapshot for " + requestFingerprint + ":\n  "
+				+ (differences.isEmpty() ? "hash differs but no structural difference (ignored fields or number scale changed?)"
+						: String.join("\n  ", differences)));
+	}
+
+	/**
+	 * Write the index with every baseline recorded since loading. No-op unless in RECORD mode.
+	 * @throws UncheckedIOException if the index cannot be written
+	 */
+	public synchronized void save() {
+		if (mode != Mode.RECORD || recorded.isEmpty()) {
+			return;
+		}
+		final Map<Long, long[]> merged = new TreeMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			merged.put(keys[i], new long[] {hashHigh[i], hashLow[i]});
+		}
+		merged.putAll(recorded);
+		try {
+			Files.createDirectories(directory);
+			final Path temp = Files.createTempFile(directory, "index", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(merged.size());
+				for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+					out.writeLong(entry.getKey());
+					out.writeLong(entry.getValue()[0]);
+					out.writeLong(entry.getValue()[1]);
+				}
+			}
+			Files.move(temp, directory.resolve("index.bin"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write golden index in " + directory, e);
+		}
+		LOGGER.info("Golden index " + directory + ": recorded " + recorded.size() + " baselines, " + merged.size() + " in total");
+	}
+
+	/**
+	 * @return e.g. "12000 matched, 3 differed, 40 without baseline"
+	 */
+	@Override
+	public String toString() {
+		return mode == Mode.RECORD ? recorded.size() + " recorded"
+				: matched + " matched, " + differed + " differed, " + unknown + " without baseline";
+	}
+
+	private static long requestKey(String requestFingerprint) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(requestFingerprint.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(digest).getLong();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private Path bodyPath(long key) {
+		final String hex = HEX.toHexDigits(key);
+		return directory.resolve("bodies").resolve(hex.substring(0, 2)).resolve(hex + ".json");
+	}
+
+	private void writeBody(long key, String canonicalText) {
+		final Path path = bodyPath(key);
+		try {
+			Files.createDirectories(path.getParent());
+			Files.writeString(path, canonicalText, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write golden snapshot " + path, e);
+		}
+	}
+
+	private Object readBody(long key) {
+		final Path path = bodyPath(key);
+		try {
+			return new JSONTokener(Files.readString(path, StandardCharsets.UTF_8)).nextValue();
+		} catch (IOException e) {
+			throw new AssertionError("Hash differs from golden index but snapshot " + path + " is missing", e);
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.matschie.api.assertions;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Declarative check on the value(s) selected by a {@link JsonPath}, e.g.
+ * <pre>
+ * JsonAssertion.that("$[*].address.postCode").startsWith("EH")
+ * JsonAssertion.that("$[*].distance").isSortedAscending()
+ * </pre>
+ * Assertions are immutable; any per-evaluation state (such as the previous value for ordering
+ * checks) lives in a {@link Check} created fresh by {@link #newCheck()}.
+ */
+public final class JsonAssertion {
+
+	/**
+	 * Evaluation of one assertion over a sequence of values.
+	 */
+	@FunctionalInterface
+	public interface Check {
+
+		/**
+		 * @param value resolved value, or null if missing
+		 * @return failure description (e.g. "does not start with 'EH'"), or null if the value passes
+		 */
+		String test(Object value);
+	}
+
+	private final JsonPath path;
+	private final Supplier<Check> checkFactory;
+	private final boolean sequential;
+
+	private JsonAssertion(JsonPath path, Supplier<Check> checkFactory, boolean sequential) {
+		this.path = path;
+		this.checkFactory = checkFactory;
+		this.sequential = sequential;
+	}
+
+	/**
+	 * Start an assertion on a path; the path is compiled once and cached.
+	 * @param path JSON path such as {@code $[*].address.postCode}
+	 * @return builder to choose the predicate
+	 */
+	public static Builder that(String path) {
+		return new Builder(JsonPath.compile(path));
+	}
+
+	public JsonPath getPath() {
+		return path;
+	}
+
+	/**
+	 * @return true if the check compares each value with the previous one (e.g. ordering),
+	 *         so chunked evaluation must re-check values across chunk boundaries
+	 */
+	public boolean isSequential() {
+		return sequential;
+	}
+
+	/**
+	 * @return fresh check for one evaluation
+	 */
+	public Check newCheck() {
+		return checkFactory.get();
+	}
+
+	public static final class Builder {
+
+		private final JsonPath path;
+
+		private Builder(JsonPath path) {
+			this.path = path;
+		}
+
+		/**
+		 * @return assertion that the value is present and not null
+		 */
+		public JsonAssertion isPresent() {
+			return stateless(value -> null);
+		}
+
+		/**
+		 * @param prefix expected prefix
+		 * @return assertion that the value's text starts with the prefix
+		 */
+		public JsonAssertion startsWith(String prefix) {
+			final String failure = "does not start with '" + prefix + "'";
+			return stateless(value -> value.toString().startsWith(prefix) ? null : failure);
+		}
+
+		/**
+		 * @param regex regular expression the whole text must match, e.g. {@code EH[0-9].*}
+		 * @return assertion that the value's text matches the expression
+		 */
+		public JsonAssertion matches(String regex) {
+			final Pattern pattern = Pattern.compile(regex);
+			final String failure = "does not match '" + regex + "'";
+			return stateless(value -> pattern.matcher(value.toString()).matches() ? null : failure);
+		}
+
+		/**
+		 * @param min lower bound, inclusive
+		 * @param max upper bound, inclusive
+		 * @return assertion that the value is a number within the range
+		 */
+		public JsonAssertion isBetween(double min, double max) {
+			final String failure = "is not between " + min + " and " + max;
+			return stateless(value -> {
+				if (!(value instanceof Number number)) {
+					return "is not a number";
+				}
+				final double d = number.doubleValue();
+				return d >= min && d <= max ? null : failure;
+			});
+		}
+
+		/**
+		 * @return assertion that successive values never decrease (numbers numerically, text lexically)
+		 */
+		public JsonAssertion isSortedAscending() {
+			return new JsonAssertion(path, () -> new Check() {
+				private Object previous;
+
+				@Override
+				public String test(Object value) {
+					if (value == null) {
+						return "is missing";
+					}
+					final Object last = previous;
+					previous = value;
+					if (last != null && compare(last, value) > 0) {
+						return "is less than the previous value ('" + last + "')";
+					}
+					return null;
+				}
+			}, true);
+		}
+
+		/**
+		 * @param description failure description, e.g. "is not a valid parcelshop id"
+		 * @param predicate predicate on the resolved value
+		 * @return assertion that the value satisfies the predicate
+		 */
+		public JsonAssertion satisfies(String description, Predicate<Object> predicate) {
+			return stateless(value -> predicate.test(value) ? null : description);
+		}
+
+		private JsonAssertion stateless(Check check) {
+			final Check guarded = value -> value == null ? "is missing" : check.test(value);
+			return new JsonAssertion(path, () -> guarded, false);
+		}
+
+		private static int compare(Object left, Object right) {
+			if (left instanceof Number l && right instanceof Number r) {
+				return Double.compare(l.doubleValue(), r.doubleValue());
+			}
+			return left.toString().compareTo(right.toString());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return path.toString();
+	}
+
+}
@@ -0,0 +1,253 @@
+package com.matschie.api.assertions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.json.JSONArray;
+
+/**
+ * Evaluates {@link JsonAssertion}s against a parsed document in a single pass:
+ * assertions iterating the same array ({@code $[*]...}) are grouped, the array is located once,
+ * and each element is visited once with every assertion's compiled accessor applied to it.
+ * For very large arrays, {@link #evaluateParallel} splits that pass into chunks on a fork-join pool.
+ */
+public final class JsonAssertionEngine {
+
+	/**
+	 * One failed assertion.
+	 * @param path concrete path of the failing value, e.g. {@code $[3].address.postCode}
+	 * @param index element index, or -1 for non-iterating paths
+	 * @param value offending value (null if missing)
+	 * @param message readable description
+	 */
+	public record Violation(String path, int index, Object value, String message) {
+
+		@Override
+		public String toString() {
+			return message;
+		}
+	}
+
+	private JsonAssertionEngine() {
+	}
+
+	/**
+	 * Evaluate assertions and collect every violation.
+	 * @param root parsed document (JSONObject or JSONArray)
+	 * @param assertions assertions to evaluate
+	 * @return violations ordered by element index, then assertion order
+	 */
+	public static List<Violation> evaluate(Object root, List<JsonAssertion> assertions) {
+		return evaluate(root, assertions, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Evaluate assertions, stopping once maxViolations have been found.
+	 * @param root parsed document (JSONObject or JSONArray)
+	 * @param assertions assertions to evaluate
+	 * @param maxViolations stop after this many violations (1 = fail fast)
+	 * @return violations ordered by element index, then assertion order
+	 */
+	public static List<Violation> evaluate(Object root, List<JsonAssertion> assertions, int maxViolations) {
+		final List<Violation> violations = new ArrayList<>();
+		final Map<String, List<JsonAssertion>> groups = new LinkedHashMap<>();
+		for (JsonAssertion assertion : assertions) {
+			groups.computeIfAbsent(assertion.getPath().getIterationKey(), key -> new ArrayList<>()).add(assertion);
+		}
+
+		for (List<JsonAssertion> group : groups.values()) {
+			final JsonPath first = group.get(0).getPath();
+			if (!first.isWildcard()) {
+				for (JsonAssertion assertion : group) {
+					final Object value = assertion.getPath().resolvePrefix(root);
+					addIfFailed(violations, assertion.newCheck().test(value), assertion.getPath().getExpression(), -1, value);
+					if (violations.size() >= maxViolations) {
+						return violations;
+					}
+				}
+				continue;
+			}
+
+			final Object node = first.resolvePrefix(root);
+			if (!(node instanceof JSONArray array)) {
+				violations.add(new Violation(first.getIterationKey(), -1, node, first.getIterationKey() + " is not an array"));
+				if (violations.size() >= maxViolations) {
+					return violations;
+				}
+				continue;
+			}
+			if (evaluateRange(array, group, 0, array.length(), violations, maxViolations)) {
+				return violations;
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Evaluate assertions over chunks of each iterated array on a fork-join pool and collect
+	 * every violation (soft assertion). The result is identical to {@link #evaluate(Object, List)}
+	 * apart from ordering within one element: violations are sorted by element index.
+	 * Sequential checks (ordering) are re-evaluated across chunk boundaries.
+	 * @param root parsed document (JSONObject or JSONArray)
+	 * @param assertions assertions to evaluate
+	 * @param pool pool to run on
+	 * @param chunkSize elements per leaf task
+	 * @return all violations, sorted by element index
+	 */
+	public static List<Violation> evaluateParallel(Object root, List<JsonAssertion> assertions, ForkJoinPool pool,
+			int chunkSize) {
+		final int chunk = Math.max(1, chunkSize);
+		final List<JsonAssertion> scalar = new ArrayList<>();
+		final Map<String, List<JsonAssertion>> groups = new LinkedHashMap<>();
+		for (JsonAssertion assertion : assertions) {
+			if (assertion.getPath().isWildcard()) {
+				groups.computeIfAbsent(assertion.getPath().getIterationKey(), key -> new ArrayList<>()).add(assertion);
+			} else {
+				scalar.add(assertion);
+			}
+		}
+
+		final List<Violation> violations = new ArrayList<>(evaluate(root, scalar));
+		for (List<JsonAssertion> group : groups.values()) {
+			final JsonPath first = group.get(0).getPath();
+			final Object node = first.resolvePrefix(root);
+			if (!(node instanceof JSONArray array)) {
+				violations.add(new Violation(first.getIterationKey(), -1, node, first.getIterationKey() + " is not an array"));
+				continue;
+			}
+			final List<Violation> groupViolations = pool.invoke(new ChunkTask(array, group, 0, array.length(), chunk));
+			groupViolations.addAll(checkChunkBoundaries(array, group, chunk));
+			groupViolations.sort(Comparator.comparingInt(Violation::index));
+			violations.addAll(groupViolations);
+		}
+		return violations;
+	}
+
+	/**
+	 * Each leaf chunk starts sequential checks afresh, so compare the first present value of every chunk
+	 * with the last present value before it, as the sequential pass does, and report failures of the former.
+	 */
+	private static List<Violation> checkChunkBoundaries(JSONArray array, List<JsonAssertion> group, int chunk) {
+		final List<Violation> violations = new ArrayList<>();
+		final List<Integer> starts = new ArrayList<>();
+		collectLeafStarts(0, array.length(), chunk, starts);
+		for (JsonAssertion assertion : group) {
+			if (!assertion.isSequential()) {
+				continue;
+			}
+			final JsonPath path = assertion.getPath();
+			// Last present value before the current chunk; missing values do not reset the sequence
+			Object previous = null;
+			for (int s = 1; s < starts.size(); s++) {
+				final int start = starts.get(s);
+				final int end = s + 1 < starts.size() ? starts.get(s + 1) : array.length();
+				for (int i = start - 1; i >= starts.get(s - 1); i--) {
+					final Object value = path.resolveElement(array.opt(i));
+					if (value != null) {
+						previous = value;
+						break;
+					}
+				}
+				if (previous == null) {
+					continue;
+				}
+				for (int i = start; i < end; i++) {
+					final Object value = path.resolveElement(array.opt(i));
+					if (value != null) {
+						final JsonAssertion.Check check = assertion.newCheck();
+						check.test(previous);
+						addIfFailed(violations, check.test(value), path.atIndex(i), i, value);
+						break;
+					}
+				}
+			}
+		}
+		return violations;
+	}
+
+	private static void collectLeafStarts(int from, int to, int chunk, List<Integer> starts) {
+		if (to - from <= chunk) {
+			starts.add(from);
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		collectLeafStarts(from, middle, chunk, starts);
+		collectLeafStarts(middle, to, chunk, starts);
+	}
+
+	/**
+	 * Splits [from, to) in halves until a slice fits in one chunk, mirroring {@link #collectLeafStarts}.
+	 */
+	private static final class ChunkTask extends RecursiveTask<List<Violation>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient JSONArray array;
+		private final transient List<JsonAssertion> group;
+		private final int from;
+		private final int to;
+		private final int chunk;
+
+		ChunkTask(JSONArray array, List<JsonAssertion> group, int from, int to, int chunk) {
+			this.array = array;
+			this.group = group;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected List<Violation> compute() {
+			if (to - from <= chunk) {
+				final List<Violation> violations = new ArrayList<>();
+				evaluateRange(array, group, from, to, violations, Integer.MAX_VALUE);
+				return violations;
+			}
+			final int middle = (from + to) >>> 1;
+			final ChunkTask left = new ChunkTask(array, group, from, middle, chunk);
+			final ChunkTask right = new ChunkTask(array, group, middle, to, chunk);
+			left.fork();
+			final List<Violation> rightViolations = right.compute();
+			final List<Violation> violations = left.join();
+			violations.addAll(rightViolations);
+			return violations;
+		}
+	}
+
+	/**
+	 * Evaluate a group of assertions sharing one iteration key over a slice of the array.
+	 * @return true if maxViolations was reached
+	 */
+	static boolean evaluateRange(JSONArray array, List<JsonAssertion> group, int from, int to,
+			List<Violation> violations, int maxViolations) {
+		final JsonAssertion.Check[] checks = new JsonAssertion.Check[group.size()];
+		for (int a = 0; a < checks.length; a++) {
+			checks[a] = group.get(a).newCheck();
+		}
+		for (int i = from; i < to; i++) {
+			final Object element = array.opt(i);
+			for (int a = 0; a < checks.length; a++) {
+				final JsonPath path = group.get(a).getPath();
+				final Object value = path.resolveElement(element);
+				addIfFailed(violations, checks[a].test(value), path.atIndex(i), i, value);
+				if (violations.size() >= maxViolations) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void addIfFailed(List<Violation> violations, String failure, String path, int index, Object value) {
+		if (failure != null) {
+			final String shown = value == null ? "" : " ('" + value + "')";
+			violations.add(new Violation(path, index, value, path + shown + " " + failure));
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.matschie.api.assertions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Compiled subset of JSONPath: {@code $}, {@code .field}, {@code ['field']}, {@code [n]} and at most one {@code [*]}.
+ * An expression is parsed once into two accessor chains - the part before the wildcard, which
+ * locates the array to iterate, and the part after it, which is applied to each element.
+ * Compiled paths are immutable and cached by expression.
+ */
+public final class JsonPath {
+
+	private static final Map<String, JsonPath> CACHE = new ConcurrentHashMap<>();
+
+	private final String expression;
+	private final Object[] prefix;
+	private final Object[] suffix;
+	private final boolean wildcard;
+
+	private JsonPath(String expression, Object[] prefix, Object[] suffix, boolean wildcard) {
+		this.expression = expression;
+		this.prefix = prefix;
+		this.suffix = suffix;
+		this.wildcard = wildcard;
+	}
+
+	/**
+	 * Compile an expression, reusing the cached instance when it was compiled before.
+	 * @param expression path such as {@code $[*].address.postCode}
+	 * @return compiled path
+	 * @throws IllegalArgumentException if the expression is not supported
+	 */
+	public static JsonPath compile(String expression) {
+		return CACHE.computeIfAbsent(expression, JsonPath::parse);
+	}
+
+	public String getExpression() {
+		return expression;
+	}
+
+	/**
+	 * @return true if the path iterates an array with {@code [*]}
+	 */
+	public boolean isWildcard() {
+		return wildcard;
+	}
+
+	/**
+	 * @return the expression up to and including {@code [*]}; paths sharing it iterate the same array
+	 */
+	public String getIterationKey() {
+		return wildcard ? expression.substring(0, expression.indexOf("[*]") + 3) : expression;
+	}
+
+	/**
+	 * @param index element index
+	 * @return the expression with the wildcard replaced by the index, e.g. {@code $[3].address.postCode}
+	 */
+	public String atIndex(int index) {
+		return wildcard ? expression.replace("[*]", "[" + index + "]") : expression;
+	}
+
+	/**
+	 * Resolve the part before the wildcard (the whole path if there is none).
+	 * @param root parsed document (JSONObject or JSONArray)
+	 * @return resolved node, or null if missing
+	 */
+	public Object resolvePrefix(Object root) {
+		return walk(root, prefix);
+	}
+
+	/**
+	 * Resolve the part after the wildcard against one array element.
+	 * @param element array element
+	 * @return resolved value, or null if missing
+	 */
+	public Object resolveElement(Object element) {
+		return walk(element, suffix);
+	}
+
+	private static Object walk(Object node, Object[] segments) {
+		Object current = node;
+		for (Object segment : segments) {
+			if (segment instanceof String field) {
+				current = current instanceof JSONObject object ? object.opt(field) : null;
+			} else {
+				current = current instanceof JSONArray array ? array.opt((Integer) segment) : null;
+			}
+			if (current == null || current == JSONObject.NULL) {
+				return null;
+			}
+		}
+		return current;
+	}
+
+	private static JsonPath parse(String expression) {
+		if (expression == null || !expression.startsWith("$")) {
+			throw new IllegalArgumentException("JSON path must start with '$': " + expression);
+		}
+		final List<Object> prefix = new ArrayList<>();
+		final List<Object> suffix = new ArrayList<>();
+		List<Object> current = prefix;
+		boolean wildcard = false;
+		int i = 1;
+		while (i < expression.length()) {
+			final char c = expression.charAt(i);
+			if (c == '.') {
+				int end = i + 1;
+				while (end < expression.length() && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+					end++;
+				}
+				if (end == i + 1) {
+					throw new IllegalArgumentException("Empty field name at position " + i + " in: " + expression);
+				}
+				current.add(expression.substring(i + 1, end));
+				i = end;
+			} else if (c == '[') {
+				final int end = expression.indexOf(']', i);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unclosed '[' at position " + i + " in: " + expression);
+				}
+				final String selector = expression.substring(i + 1, end).trim();
+				if (selector.equals("*")) {
+					if (wildcard) {
+						throw new IllegalArgumentException("Only one [*] is supported in: " + expression);
+					}
+					wildcard = true;
+					current = suffix;
+				} else if (selector.startsWith("'") && selector.endsWith("'") && selector.length() >= 2) {
+					current.add(selector.substring(1, selector.length() - 1));
+				} else {
+					try {
+						current.add(Integer.valueOf(selector));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Unsupported selector [" + selector + "] in: " + expression, e);
+					}
+				}
+				i = end + 1;
+			} else {
+				throw new IllegalArgumentException("Unexpected '" + c + "' at position " + i + " in: " + expression);
+			}
+		}
+		return new JsonPath(expression, prefix.toArray(), suffix.toArray(), wildcard);
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+}
@@ -1,5 +1,8 @@
 package com.matschie.api.design;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.time.Duration;
 import java.util.Map;
 
 public interface ResponseAPI {
@@ -10,8 +13,14 @@ public interface ResponseAPI {
 
 	String getBody();
 
+	ByteBuffer getBodyBytes();
+
+	CharBuffer getBodyChars();
+
 	Map<String, String> getHeaders();
 
 	String getContentType();
 
+	Duration getResponseTime();
+
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.util.PropertiesUtils;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Lightweight replacement for {@code AllureRestAssured}: attaches HTTP exchanges to the current
+ * Allure test case as plain text instead of rendered HTML.
+ * <ul>
+ * <li>each body is capped at {@code allure.http.attachment.max.bytes} (default 64 KiB);</li>
+ * <li>response bodies are stored content-addressed (file name = SHA-256 of the capped body),
+ *     so identical responses are written to {@code allure-results} once and shared;</li>
+ * <li>files are written on a background thread, off the request thread;</li>
+ * <li>the amount of detail follows {@code allure.http.attachments} - {@code full}, {@code on-failure}
+ *     (default: full exchanges for failed scenarios, a one-line-per-request summary for passed ones),
+ *     {@code summary} or {@code off} - and can be set per tag with
+ *     {@code allure.http.attachments.<tag>} (e.g. {@code allure.http.attachments.sweep=off}).</li>
+ * </ul>
+ * Scenario hooks call {@link #beginScenario(Collection)} and {@link #endScenario(boolean)}; threads started
+ * during the scenario (sweep, load and fuzz workers) inherit its mode and collect into it. Requests made
+ * outside a scenario on a thread with a running Allure test case are attached according to the default mode.
+ */
+public class AllureHttpAttachments implements Filter {
+
+	private static final Logger LOGGER = Logger.getLogger(AllureHttpAttachments.class.getName());
+
+	private static final int DEFAULT_MAX_BYTES = 64 * 1024;
+	private static final String DEFAULT_MASKED_HEADERS = "apikey,authorization,x-api-key";
+	private static final String ATTACHMENT_SUFFIX = "-attachment";
+
+	/**
+	 * Attachment detail, from least to most.
+	 */
+	public enum Mode {
+		OFF, SUMMARY, ON_FAILURE, FULL;
+
+		static Mode parse(String value, Mode defaultMode) {
+			if (value == null || value.isBlank()) {
+				return defaultMode;
+			}
+			try {
+				return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid allure.http.attachments mode '" + value
+						+ "' - expected full, on-failure, summary or off", e);
+			}
+		}
+	}
+
+	/**
+	 * One captured exchange.
+	 * @param summary one-line description, e.g. "GET https://host/path -> 200 (85 ms, 5120 B)"
+	 * @param exchange request line, headers and body plus response status and headers
+	 * @param responseBody capped response body
+	 * @param responseType MIME type of the response body
+	 */
+	private record Exchange(String summary, String exchange, byte[] responseBody, String responseType) {
+	}
+
+	private static final class ScenarioContext {
+		private final Mode mode;
+		private final Queue<Exchange> exchanges = new ConcurrentLinkedQueue<>();
+
+		private ScenarioContext(Mode mode) {
+			this.mode = mode;
+		}
+	}
+
+	/**
+	 * Allure results directory, resolved from allure.properties on first write.
+	 */
+	private static final class ResultsDirectory {
+		private static final Path PATH = Paths.get(PropertiesUtils.loadAllureProperties()
+				.getProperty("allure.results.directory", "allure-results"));
+	}
+
+	// Inheritable like Allure's own test-case context, so worker threads started by a step follow the scenario's mode
+	private static final ThreadLocal<ScenarioContext> SCENARIO = new InheritableThreadLocal<>();
+	private static final Object TEST_CASE_LOCK = new Object();
+	private static final Set<String> WRITTEN = ConcurrentHashMap.newKeySet();
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "allure-attachment-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		// Pending attachment files must reach disk before the JVM exits
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			WRITER.shutdown();
+			try {
+				WRITER.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, "allure-attachment-writer-shutdown"));
+	}
+
+	/**
+	 * Start collecting exchanges for a scenario on the current thread.
+	 * @param tags scenario tags, with or without '@'
+	 */
+	public static void beginScenario(Collection<String> tags) {
+		Mode mode = Mode.parse(config("allure.http.attachments"), Mode.ON_FAILURE);
+		Mode tagged = null;
+		for (String tag : tags) {
+			Mode override = Mode.parse(config("allure.http.attachments." + tag.replaceFirst("^@", "")), null);
+			if (override != null && (tagged == null || override.compareTo(tagged) > 0)) {
+				tagged = override;
+			}
+		}
+		SCENARIO.set(new ScenarioContext(tagged == null ? mode : tagged));
+	}
+
+	/**
+	 * Attach what the scenario's mode asks for and stop collecting. Must run while the Allure
+	 * test case is still open (e.g. in an {@code @After} hook).
+	 * @param failed whether the scenario failed
+	 */
+	public static void endScenario(boolean failed) {
+		ScenarioContext context = SCENARIO.get();
+		SCENARIO.remove();
+		if (context == null || context.exchanges.isEmpty()) {
+			return;
+		}
+		if (context.mode == Mode.ON_FAILURE && failed) {
+			context.exchanges.forEach(AllureHttpAttachments::attachFull);
+		} else if (context.mode == Mode.ON_FAILURE || context.mode == Mode.SUMMARY) {
+			attach("HTTP summary (" + context.exchanges.size() + " requests)", "text/plain", ".txt",
+					context.exchanges.stream().map(Exchange::summary).collect(Collectors.joining("\n"))
+							.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+			FilterContext ctx) {
+		Response response = ctx.next(requestSpec, responseSpec);
+
+		ScenarioContext context = SCENARIO.get();
+		Mode mode = context == null ? Mode.parse(config("allure.http.attachments"), Mode.ON_FAILURE) : context.mode;
+		if (mode == Mode.OFF || (context == null && Allure.getLifecycle().getCurrentTestCase().isEmpty())) {
+			return response;
+		}
+		Exchange exchange = capture(requestSpec, response);
+		if (mode == Mode.FULL || (context == null && mode == Mode.ON_FAILURE)) {
+			attachFull(exchange);
+		} else if (context != null) {
+			context.exchanges.add(exchange);
+		} else {
+			attach(exchange.summary(), "text/plain", ".txt", exchange.summary().getBytes(StandardCharsets.UTF_8));
+		}
+		return response;
+	}
+
+	private static Exchange capture(FilterableRequestSpecification requestSpec, Response response) {
+		int maxBytes = configInt("allure.http.attachment.max.bytes", DEFAULT_MAX_BYTES);
+		String maskedHeaders = config("allure.http.masked.headers");
+		Set<String> masked = Arrays.stream((maskedHeaders == null ? DEFAULT_MASKED_HEADERS : maskedHeaders).split(","))
+				.map(name -> name.trim().toLowerCase(Locale.ROOT))
+				.collect(Collectors.toSet());
+
+		byte[] body = response.asByteArray();
+		String summary = "%s %s -> %d (%d ms, %d B)".formatted(requestSpec.getMethod(), requestSpec.getURI(),
+				response.getStatusCode(), response.getTimeIn(TimeUnit.MILLISECONDS), body.length);
+
+		StringBuilder text = new StringBuilder(requestSpec.getMethod()).append(' ').append(requestSpec.getURI()).append('\n');
+		appendHeaders(text, requestSpec.getHeaders().asList(), masked);
+		Object requestBody = requestSpec.getBody();
+		if (requestBody != null) {
+			text.append('\n').append(new String(cap(requestBody.toString().getBytes(StandardCharsets.UTF_8), maxBytes),
+					StandardCharsets.UTF_8)).append('\n');
+		}
+		text.append("\n").append(response.getStatusLine()).append('\n');
+		appendHeaders(text, response.getHeaders().asList(), masked);
+
+		String contentType = response.getContentType();
+		String type = contentType == null || contentType.isBlank() ? "text/plain" : contentType.split(";")[0].trim();
+		return new Exchange(summary, text.toString(), cap(body, maxBytes), type);
+	}
+
+	private static void appendHeaders(StringBuilder text, List<Header> headers, Set<String> masked) {
+		for (Header header : headers) {
+			text.append(header.getName()).append(": ")
+					.append(masked.contains(header.getName().toLowerCase(Locale.ROOT)) ? "***" : header.getValue())
+					.append('\n');
+		}
+	}
+
+	private static byte[] cap(byte[] content, int maxBytes) {
+		if (maxBytes <= 0 || content.length <= maxBytes) {
+			return content;
+		}
+		byte[] marker = ("\n... [truncated, " + content.length + " bytes in total]").getBytes(StandardCharsets.UTF_8);
+		byte[] capped = Arrays.copyOf(content, maxBytes + marker.length);
+		System.arraycopy(marker, 0, capped, maxBytes, marker.length);
+		return capped;
+	}
+
+	private static void attachFull(Exchange exchange) {
+		attach(exchange.summary(), "text/plain", ".txt", exchange.exchange().getBytes(StandardCharsets.UTF_8));
+		if (exchange.responseBody().length > 0) {
+			String extension = exchange.responseType().contains("json") ? ".json" : ".txt";
+			attach("Response body", exchange.responseType(), extension, exchange.responseBody());
+		}
+	}
+
+	/**
+	 * Reference a content-addressed file from the current test case and queue the file for writing
+	 * unless a file with the same content was written already.
+	 */
+	private static void attach(String name, String type, String extension, byte[] content) {
+		AllureLifecycle lifecycle = Allure.getLifecycle();
+		if (lifecycle.getCurrentTestCase().isEmpty()) {
+			return;
+		}
+		String source = sha256(content) + ATTACHMENT_SUFFIX + extension;
+		// Workers of one scenario share its test case result, whose attachment list is not thread-safe
+		synchronized (TEST_CASE_LOCK) {
+			lifecycle.updateTestCase(result -> result.getAttachments()
+					.add(new Attachment().setName(name).setType(type).setSource(source)));
+		}
+		if (WRITTEN.add(source)) {
+			WRITER.execute(() -> write(source, content));
+		}
+	}
+
+	private static void write(String source, byte[] content) {
+		Path directory = ResultsDirectory.PATH;
+		try {
+			Files.createDirectories(directory);
+			Files.write(directory.resolve(source), content, StandardOpenOption.CREATE_NEW);
+		} catch (FileAlreadyExistsException e) {
+			// Same content written by an earlier run or JVM
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Could not write Allure attachment " + source, e);
+		}
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.conn.DnsResolver;
+
+/**
+ * DNS resolver of the pooled HTTP clients that keeps each host's addresses for a configured time,
+ * so the lookup is paid once (at warm-up) rather than by the first request of a scenario:
+ * <pre>
+ * http.dns.ttl=30s                    # every host
+ * http.dns.ttl.api.example.com=10m    # one host; 0 disables caching for it
+ * </pre>
+ * Failed lookups are not cached. The JVM's own address cache ({@code networkaddress.cache.ttl})
+ * still applies underneath, so a TTL below it has no effect. The cache is cleared when the configuration reloads.
+ */
+public final class CachingDnsResolver implements DnsResolver {
+
+	private static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+	private static final CachingDnsResolver SHARED = new CachingDnsResolver();
+
+	private record Entry(InetAddress[] addresses, long expiresAt) {
+	}
+
+	private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+	static {
+		onReload(SHARED.cache::clear);
+	}
+
+	private CachingDnsResolver() {
+	}
+
+	/**
+	 * @return resolver shared by every connection pool
+	 */
+	public static CachingDnsResolver shared() {
+		return SHARED;
+	}
+
+	@Override
+	public InetAddress[] resolve(String host) throws UnknownHostException {
+		final long now = System.nanoTime();
+		final Entry cached = cache.get(host);
+		if (cached != null && now - cached.expiresAt() < 0) {
+			return cached.addresses().clone();
+		}
+		final InetAddress[] addresses = InetAddress.getAllByName(host);
+		final Duration ttl = configDuration("http.dns.ttl." + host, configDuration("http.dns.ttl", DEFAULT_TTL));
+		if (!ttl.isZero() && !ttl.isNegative()) {
+			cache.put(host, new Entry(addresses.clone(), now + ttl.toNanos()));
+		}
+		return addresses;
+	}
+
+}
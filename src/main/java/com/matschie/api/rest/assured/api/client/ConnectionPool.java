@@ -0,0 +1,138 @@
+package com.matschie.api.rest.assured.api.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+
+import io.restassured.config.HttpClientConfig;
+
+/**
+ * Keep-alive connections of one endpoint, shared by every request to it. Without a pool RestAssured
+ * builds a new HTTP client, and so a new TCP connection and TLS session, for each request.
+ * Host names are resolved through {@link CachingDnsResolver}. Connections can be opened ahead of
+ * the first request with {@link #preOpen}. Thread-safe.
+ * <p>
+ * RestAssured is built on the HttpClient 4.x API that predates {@code HttpClientBuilder}, hence the deprecated types.
+ */
+@SuppressWarnings("deprecation")
+public final class ConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+	private final String endpoint;
+	private final PoolingClientConnectionManager manager;
+
+	/**
+	 * @param endpoint endpoint name used in messages
+	 * @param maxConnections maximum open connections, per host and in total
+	 */
+	ConnectionPool(String endpoint, int maxConnections) {
+		this.endpoint = endpoint;
+		this.manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault(), CachingDnsResolver.shared());
+		manager.setMaxTotal(Math.max(1, maxConnections));
+		manager.setDefaultMaxPerRoute(Math.max(1, maxConnections));
+	}
+
+	/**
+	 * @param httpClientConfig configuration to extend (timeouts and other parameters are kept)
+	 * @return configuration whose clients all draw their connections from this pool
+	 */
+	HttpClientConfig apply(HttpClientConfig httpClientConfig) {
+		// RestAssured shuts the connection manager down after each request unless the client is marked reusable
+		return httpClientConfig.reuseHttpClientInstance().httpClientFactory(() -> ExchangeDeadline.enforceOn(new DefaultHttpClient(manager)));
+	}
+
+	/**
+	 * Open connections to a host and leave them idle in the pool, so the first requests skip DNS,
+	 * TCP connect and TLS handshake. Connections already idle in the pool count towards the total.
+	 * @param target scheme, host and optional port, e.g. https://api.example.com
+	 * @param connections number of connections to have open
+	 * @param connectTimeout connect (and TLS handshake) timeout per connection
+	 * @return number of connections opened by this call
+	 * @throws IOException if a connection cannot be opened
+	 */
+	public int preOpen(URI target, int connections, Duration connectTimeout) throws IOException {
+		final HttpRoute route = route(target);
+		final HttpParams params = new BasicHttpParams();
+		HttpConnectionParams.setConnectionTimeout(params, (int) connectTimeout.toMillis());
+		HttpConnectionParams.setSoTimeout(params, (int) connectTimeout.toMillis());
+		final List<ManagedClientConnection> leased = new ArrayList<>();
+		int opened = 0;
+		try {
+			// All are held until the end, otherwise the pool would hand out the same connection each time
+			for (int i = 0; i < connections; i++) {
+				final ManagedClientConnection connection = manager.requestConnection(route, null)
+						.getConnection(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+				leased.add(connection);
+				if (!connection.isOpen()) {
+					connection.open(route, new BasicHttpContext(), params);
+					opened++;
+				}
+			}
+		} catch (ConnectionPoolTimeoutException | InterruptedException e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			LOGGER.warning("Pool of '" + endpoint + "' is full - pre-opened " + leased.size() + " of " + connections + " connections");
+		} finally {
+			for (ManagedClientConnection connection : leased) {
+				connection.markReusable();
+				manager.releaseConnection(connection, -1, TimeUnit.MILLISECONDS);
+			}
+		}
+		return opened;
+	}
+
+	/**
+	 * Route of requests to a host, built as {@code DefaultHttpRoutePlanner} builds it: the pool keys connections
+	 * by route, and a route differing only in the secure flag would never be leased by a request.
+	 * @param target scheme, host and optional port
+	 * @return direct route to the host, secure for TLS schemes
+	 * @throws IllegalStateException if the scheme is not registered
+	 */
+	HttpRoute route(URI target) {
+		final HttpHost host = new HttpHost(target.getHost(), target.getPort(), target.getScheme());
+		return new HttpRoute(host, null, manager.getSchemeRegistry().getScheme(host).isLayered());
+	}
+
+	/**
+	 * @return connections leased, pending and available across all routes
+	 */
+	PoolStats stats() {
+		return manager.getTotalStats();
+	}
+
+	/**
+	 * Close every connection of the pool, idle or leased; it must not be used afterwards.
+	 */
+	void shutdown() {
+		manager.shutdown();
+		LOGGER.fine(() -> "Pool of '" + endpoint + "' shut down");
+	}
+
+	/**
+	 * @return pool usage, e.g. "[leased: 0; pending: 0; available: 4; max: 20]"
+	 */
+	@Override
+	public String toString() {
+		return stats().toString();
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.logging.Logger;
+
+import io.restassured.RestAssured;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+/**
+ * Suite-start warm-up, so the first scenarios measure the server rather than connection setup:
+ * <ol>
+ * <li>resolve the host of the base URI into the {@link CachingDnsResolver} cache;</li>
+ * <li>open {@code http.warmup.connections} (default 4) keep-alive connections in the endpoint's {@link ConnectionPool};</li>
+ * <li>send {@code http.warmup.requests} (default 0) GET requests whose responses are discarded,
+ *     warming server caches and the client code path; they bypass the framework filters, so they
+ *     appear in no report, timing or circuit breaker.</li>
+ * </ol>
+ * A failing step is logged and the warm-up carries on; scenarios report the actual problem.
+ */
+public final class ConnectionWarmUp {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionWarmUp.class.getName());
+
+	private static final int DEFAULT_CONNECTIONS = 4;
+	private static final int DEFAULT_REQUESTS = 0;
+
+	private ConnectionWarmUp() {
+	}
+
+	/**
+	 * @param request base request of the API (base URI, base path, headers)
+	 */
+	public static void warmUp(RequestSpecification request) {
+		final QueryableRequestSpecification query = SpecificationQuerier.query(request);
+		final URI target = URI.create(query.getBaseUri());
+		final EndpointPolicy policy = EndpointPolicy.forRequest(query.getBasePath(), "");
+		final StringBuilder summary = new StringBuilder("Warm-up of ").append(target.getHost()).append(':');
+
+		long start = System.nanoTime();
+		try {
+			CachingDnsResolver.shared().resolve(target.getHost());
+			summary.append(" DNS ").append(millisSince(start)).append(" ms;");
+		} catch (IOException e) {
+			LOGGER.warning("Warm-up DNS lookup of " + target.getHost() + " failed: " + e);
+		}
+
+		if (policy.connectionPool() != null) {
+			start = System.nanoTime();
+			try {
+				final int opened = policy.connectionPool().preOpen(target, configInt("http.warmup.connections", DEFAULT_CONNECTIONS),
+						policy.connectTimeout());
+				summary.append(' ').append(opened).append(" connection(s) ").append(millisSince(start)).append(" ms;");
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warning("Warm-up connections to " + target + " failed: " + e);
+			}
+		}
+
+		final int requests = configInt("http.warmup.requests", DEFAULT_REQUESTS);
+		if (requests > 0) {
+			start = System.nanoTime();
+			int failed = 0;
+			for (int i = 0; i < requests; i++) {
+				try {
+					RestAssured.given().spec(request).config(policy.restAssuredConfig()).get().asByteArray();
+				} catch (RuntimeException e) {
+					failed++;
+				}
+			}
+			summary.append(' ').append(requests).append(" discard request(s) ").append(millisSince(start)).append(" ms")
+					.append(failed > 0 ? " (" + failed + " failed)" : "").append(';');
+		}
+
+		summary.append(" pool ").append(policy.connectionPool());
+		LOGGER.info(summary::toString);
+	}
+
+	private static long millisSince(long start) {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.impl.client.DefaultHttpClient;
+
+import com.matschie.general.utils.CircuitBreaker;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+
+/**
+ * Timeouts, circuit breaker and connection pool for one endpoint, identified by the last segment of the request path
+ * (e.g. {@code parcelshop} for {@code /enterprise-parcelshop-api/v1/parcelshop}).
+ * Every setting falls back from {@code http.<endpoint>.<key>} to {@code http.<key>}:
+ * <pre>
+ * http.connect.timeout=10s            # TCP connect
+ * http.read.timeout=30s               # socket inactivity while waiting for / reading the response
+ * http.deadline=60s                   # whole exchange; the request is aborted when it passes
+ * http.parcelshop.read.timeout=15s    # endpoint override
+ * http.circuit.enabled=true
+ * http.circuit.failure.rate=50        # percent of the window
+ * http.circuit.window.size=20
+ * http.circuit.minimum.calls=10
+ * http.circuit.open.duration=30s
+ * http.circuit.half.open.probes=3
+ * http.pool.enabled=true              # keep-alive connections shared by all requests to the endpoint
+ * http.pool.max.connections=20
+ * </pre>
+ * Policies, and so breakers and pools, are shared per endpoint across the JVM and rebuilt when the configuration reloads;
+ * the old pools are then shut down, failing any request still using them.
+ */
+public record EndpointPolicy(String endpoint, Duration connectTimeout, Duration readTimeout, Duration deadline,
+		CircuitBreaker circuitBreaker, ConnectionPool connectionPool) {
+
+	private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+	private static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(60);
+	private static final int DEFAULT_FAILURE_RATE = 50;
+	private static final int DEFAULT_WINDOW_SIZE = 20;
+	private static final int DEFAULT_MINIMUM_CALLS = 10;
+	private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+	private static final int DEFAULT_HALF_OPEN_PROBES = 3;
+	private static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+	private static final Map<String, EndpointPolicy> POLICIES = new ConcurrentHashMap<>();
+
+	static {
+		onReload(EndpointPolicy::reset);
+	}
+
+	/**
+	 * @param basePath request base path (may be null)
+	 * @param path request path relative to the base path (may be empty)
+	 * @return policy of the endpoint the request goes to
+	 */
+	public static EndpointPolicy forRequest(String basePath, String path) {
+		return POLICIES.computeIfAbsent(endpointName(basePath, path), EndpointPolicy::load);
+	}
+
+	/**
+	 * @return the global RestAssured configuration with the connect and read timeouts, the deadline
+	 *         and the connection pool applied
+	 */
+	@SuppressWarnings("deprecation")
+	public RestAssuredConfig restAssuredConfig() {
+		final RestAssuredConfig global = RestAssured.config();
+		final HttpClientConfig httpClientConfig = global.getHttpClientConfig()
+				.setParam("http.connection.timeout", (int) connectTimeout.toMillis())
+				.setParam("http.socket.timeout", (int) readTimeout.toMillis());
+		return global.httpClient(connectionPool != null ? connectionPool.apply(httpClientConfig)
+				: httpClientConfig.httpClientFactory(() -> ExchangeDeadline.enforceOn(new DefaultHttpClient())));
+	}
+
+	static String endpointName(String basePath, String path) {
+		final String full = ((basePath == null ? "" : basePath) + "/" + (path == null ? "" : path)).replaceAll("\\?.*$", "");
+		final String[] segments = full.split("/");
+		for (int i = segments.length - 1; i >= 0; i--) {
+			if (!segments[i].isBlank()) {
+				return segments[i];
+			}
+		}
+		return "default";
+	}
+
+	/**
+	 * Drop every policy so the next request loads the reloaded settings, and close the connections of the old pools.
+	 */
+	private static void reset() {
+		for (String endpoint : POLICIES.keySet()) {
+			final EndpointPolicy policy = POLICIES.remove(endpoint);
+			if (policy != null && policy.connectionPool() != null) {
+				policy.connectionPool().shutdown();
+			}
+		}
+	}
+
+	private static EndpointPolicy load(String endpoint) {
+		final CircuitBreaker breaker = configBoolean(key(endpoint, "circuit.enabled"), true)
+				? new CircuitBreaker(endpoint,
+						configInt(key(endpoint, "circuit.failure.rate"), DEFAULT_FAILURE_RATE),
+						configInt(key(endpoint, "circuit.window.size"), DEFAULT_WINDOW_SIZE),
+						configInt(key(endpoint, "circuit.minimum.calls"), DEFAULT_MINIMUM_CALLS),
+						configDuration(key(endpoint, "circuit.open.duration"), DEFAULT_OPEN_DURATION),
+						configInt(key(endpoint, "circuit.half.open.probes"), DEFAULT_HALF_OPEN_PROBES))
+				: null;
+		return new EndpointPolicy(endpoint,
+				configDuration(key(endpoint, "connect.timeout"), DEFAULT_CONNECT_TIMEOUT),
+				configDuration(key(endpoint, "read.timeout"), DEFAULT_READ_TIMEOUT),
+				configDuration(key(endpoint, "deadline"), DEFAULT_DEADLINE),
+				breaker,
+				configBoolean(key(endpoint, "pool.enabled"), true)
+						? new ConnectionPool(endpoint, configInt(key(endpoint, "pool.max.connections"), DEFAULT_MAX_CONNECTIONS))
+						: null);
+	}
+
+	/**
+	 * @return the endpoint-specific key if it is configured, otherwise the global one
+	 */
+	private static String key(String endpoint, String name) {
+		final String specific = "http." + endpoint + "." + name;
+		return config(specific) != null ? specific : "http." + name;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.matschie.api.rest.assured.api.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.methods.AbortableHttpRequest;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.RequestWrapper;
+
+/**
+ * Deadline of the exchange running on the current thread. {@link ResilienceFilter} starts it before
+ * the exchange; the HTTP client's request interceptor ({@link #enforceOn}) then schedules an abort of
+ * the request for when the deadline passes. Aborting closes the connection, so a response that is still
+ * being sent or read ends with an I/O error instead of running on.
+ */
+@SuppressWarnings("deprecation")
+final class ExchangeDeadline implements AutoCloseable {
+
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "http-deadline");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final ThreadLocal<ExchangeDeadline> CURRENT = new ThreadLocal<>();
+
+	private static final HttpRequestInterceptor INTERCEPTOR = (request, context) -> {
+		final ExchangeDeadline deadline = CURRENT.get();
+		if (deadline != null && request instanceof RequestWrapper wrapper
+				&& wrapper.getOriginal() instanceof AbortableHttpRequest abortable) {
+			deadline.arm(abortable);
+		}
+	};
+
+	private final long expiresAt;
+	private final List<ScheduledFuture<?>> aborts = new ArrayList<>();
+	private volatile boolean expired;
+
+	private ExchangeDeadline(Duration deadline) {
+		this.expiresAt = System.nanoTime() + deadline.toNanos();
+	}
+
+	/**
+	 * @param deadline time the whole exchange may take from now
+	 * @return the deadline, bound to the current thread until {@link #close()}
+	 */
+	static ExchangeDeadline start(Duration deadline) {
+		final ExchangeDeadline exchangeDeadline = new ExchangeDeadline(deadline);
+		CURRENT.set(exchangeDeadline);
+		return exchangeDeadline;
+	}
+
+	/**
+	 * Abort requests sent by the client when the deadline of the exchange sending them passes.
+	 * @param client client to add the request interceptor to
+	 * @return the client
+	 */
+	static <T extends AbstractHttpClient> T enforceOn(T client) {
+		client.addRequestInterceptor(INTERCEPTOR);
+		return client;
+	}
+
+	/**
+	 * @return true if a request of the exchange was aborted at the deadline
+	 */
+	boolean expired() {
+		return expired;
+	}
+
+	/**
+	 * Cancel pending aborts and unbind the deadline from the current thread.
+	 */
+	@Override
+	public void close() {
+		CURRENT.remove();
+		synchronized (aborts) {
+			aborts.forEach(abort -> abort.cancel(false));
+			aborts.clear();
+		}
+	}
+
+	/**
+	 * Called for the first request and each redirect of the exchange.
+	 */
+	private void arm(AbortableHttpRequest request) {
+		final Runnable abort = () -> {
+			expired = true;
+			request.abort();
+		};
+		final long remaining = expiresAt - System.nanoTime();
+		if (remaining <= 0) {
+			abort.run();
+			return;
+		}
+		synchronized (aborts) {
+			aborts.add(TIMER.schedule(abort, remaining, TimeUnit.NANOSECONDS));
+		}
+	}
+
+}
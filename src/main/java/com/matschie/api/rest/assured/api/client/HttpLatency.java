@@ -0,0 +1,120 @@
+package com.matschie.api.rest.assured.api.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+
+import com.matschie.general.utils.LatencyHistogram;
+
+/**
+ * Latency distribution and error count of HTTP calls, the basis of performance SLO checks.
+ * {@link TimingFilter} records every exchange into the instance of its endpoint (last path segment, as for
+ * {@link EndpointPolicy}), cumulative for the JVM; a load run keeps its own instance so concurrent scenarios
+ * do not mix. An exchange counts as an error when it throws or answers with a 5xx status, unless the
+ * caller decides otherwise. Thread-safe.
+ */
+public final class HttpLatency {
+
+	private static final Map<String, HttpLatency> ENDPOINTS = new ConcurrentHashMap<>();
+
+	private final LatencyHistogram histogram;
+	private final AtomicLong errors = new AtomicLong();
+
+	public HttpLatency() {
+		this(new LatencyHistogram());
+	}
+
+	private HttpLatency(LatencyHistogram histogram) {
+		this.histogram = histogram;
+	}
+
+	/**
+	 * @param endpoint endpoint name, e.g. "parcelshop"
+	 * @return cumulative latency of every call to the endpoint in this JVM
+	 */
+	public static HttpLatency forEndpoint(String endpoint) {
+		return ENDPOINTS.computeIfAbsent(endpoint, name -> new HttpLatency());
+	}
+
+	/**
+	 * @return cumulative latency per endpoint, sorted by endpoint name
+	 */
+	public static Map<String, HttpLatency> endpoints() {
+		return new TreeMap<>(ENDPOINTS);
+	}
+
+	/**
+	 * @param nanos duration of the call in nanoseconds
+	 * @param failed whether the call failed
+	 */
+	public void record(long nanos, boolean failed) {
+		histogram.record(nanos);
+		if (failed) {
+			errors.incrementAndGet();
+		}
+	}
+
+	public long count() {
+		return histogram.count();
+	}
+
+	public long errors() {
+		return errors.get();
+	}
+
+	/**
+	 * @return failed calls as a percentage of all calls, zero if none were recorded
+	 */
+	public double errorRate() {
+		final long count = count();
+		return count == 0 ? 0 : errors.get() * 100.0 / count;
+	}
+
+	/**
+	 * @param percentile percentile between 0 and 100, e.g. 95
+	 * @return latency at or below which that percentage of calls completed
+	 */
+	public Duration percentile(double percentile) {
+		return histogram.percentile(percentile);
+	}
+
+	public Duration max() {
+		return histogram.max();
+	}
+
+	/**
+	 * Add the calls of another run, e.g. of another shard.
+	 * @param other latency to merge
+	 */
+	public void add(HttpLatency other) {
+		histogram.add(other.histogram);
+		errors.addAndGet(other.errors.get());
+	}
+
+	/**
+	 * @return the latency histogram and error count as JSON
+	 */
+	public JSONObject toJson() {
+		return histogram.toJson().put("errors", errors.get());
+	}
+
+	/**
+	 * @param json latency written by {@link #toJson()}
+	 * @return the latency
+	 */
+	public static HttpLatency fromJson(JSONObject json) {
+		final HttpLatency latency = new HttpLatency(LatencyHistogram.fromJson(json));
+		latency.errors.set(json.getLong("errors"));
+		return latency;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s errors=%d (%.2f%%)", histogram, errors(), errorRate());
+	}
+
+}
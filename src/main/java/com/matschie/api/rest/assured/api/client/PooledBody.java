@@ -0,0 +1,145 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.matschie.general.utils.DirectBufferPool;
+
+/**
+ * Response body held in pooled direct buffers instead of heap strings, for high-volume runs:
+ * <pre>
+ * http.body.pooled=false                     # opt in
+ * http.body.pool.max.buffer.bytes=4194304    # larger bodies stay on the heap
+ * http.body.pool.max.idle.bytes=67108864     # most memory kept in released buffers
+ * </pre>
+ * The bytes are copied off-heap once when the response is wrapped; the text is decoded once, on first
+ * use, into a second pooled buffer. Both are exposed as read-only views. Pool sizes are read once per JVM.
+ * <p>
+ * Bodies are leased to the thread that received them. Scenario hooks and load workers call
+ * {@link #releaseAll()} when they are done with their responses, which returns the buffers to the pool;
+ * reading such a response afterwards throws, and views obtained before must not be used any more.
+ */
+public final class PooledBody {
+
+	private static final int DEFAULT_MAX_BUFFER_BYTES = 4 * 1024 * 1024;
+	private static final int DEFAULT_MAX_IDLE_BYTES = 64 * 1024 * 1024;
+
+	private static final DirectBufferPool POOL = new DirectBufferPool(
+			configInt("http.body.pool.max.buffer.bytes", DEFAULT_MAX_BUFFER_BYTES),
+			configInt("http.body.pool.max.idle.bytes", DEFAULT_MAX_IDLE_BYTES));
+	private static final ThreadLocal<List<PooledBody>> LEASED = ThreadLocal.withInitial(ArrayList::new);
+
+	private final ByteBuffer bytes;
+	private final Charset charset;
+	private ByteBuffer charStorage;
+	private CharBuffer chars;
+	private volatile boolean released;
+
+	private PooledBody(ByteBuffer bytes, Charset charset) {
+		this.bytes = bytes;
+		this.charset = charset;
+	}
+
+	/**
+	 * @return whether responses are wrapped in pooled bodies ({@code http.body.pooled})
+	 */
+	public static boolean enabled() {
+		return configBoolean("http.body.pooled", false);
+	}
+
+	/**
+	 * Copy a body into a pooled buffer leased to the current thread.
+	 * @param content body bytes
+	 * @param charset charset of the body text
+	 * @return the pooled body, or null if the body is empty or too large to pool
+	 */
+	static PooledBody lease(byte[] content, Charset charset) {
+		if (content.length == 0 || content.length > POOL.maxBufferBytes()) {
+			return null;
+		}
+		final ByteBuffer buffer = POOL.acquire(content.length);
+		buffer.put(content).flip();
+		final PooledBody body = new PooledBody(buffer, charset);
+		LEASED.get().add(body);
+		return body;
+	}
+
+	/**
+	 * Return every body leased to the current thread to the pool.
+	 */
+	public static void releaseAll() {
+		final List<PooledBody> leased = LEASED.get();
+		leased.forEach(PooledBody::release);
+		leased.clear();
+	}
+
+	/**
+	 * @return pool statistics, e.g. "12 allocated, 48000 reused, 256 KiB idle"
+	 */
+	public static String statistics() {
+		return POOL.toString();
+	}
+
+	/**
+	 * @return read-only view of the body bytes
+	 * @throws IllegalStateException if the body has been released
+	 */
+	ByteBuffer bytes() {
+		checkNotReleased();
+		return bytes.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return read-only view of the body text, decoded on first use; malformed input is replaced
+	 * @throws IllegalStateException if the body has been released
+	 */
+	synchronized CharBuffer chars() {
+		checkNotReleased();
+		if (chars == null) {
+			// UTF-8 and single-byte charsets decode to at most one char per byte
+			final long charBytes = 2L * bytes.limit();
+			if (charBytes <= POOL.maxBufferBytes()) {
+				charStorage = POOL.acquire((int) charBytes);
+				chars = charStorage.asCharBuffer();
+			} else {
+				chars = CharBuffer.allocate(bytes.limit());
+			}
+			final CharsetDecoder decoder = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			final ByteBuffer input = bytes.duplicate();
+			final CoderResult result = decoder.decode(input, chars, true);
+			if (result.isOverflow() || decoder.flush(chars).isOverflow()) {
+				throw new IllegalStateException(charset + " body decodes to more chars than bytes");
+			}
+			chars.flip();
+		}
+		return chars.asReadOnlyBuffer();
+	}
+
+	private synchronized void release() {
+		if (released) {
+			return;
+		}
+		released = true;
+		POOL.release(bytes);
+		if (charStorage != null) {
+			POOL.release(charStorage);
+		}
+	}
+
+	private void checkNotReleased() {
+		if (released) {
+			throw new IllegalStateException("Response body was released to the buffer pool at the end of the scenario");
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.matschie.api.rest.assured.api.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Outermost filter enforcing an {@link EndpointPolicy}: rejects calls while the endpoint's circuit
+ * breaker is open, turns I/O failures (connect/read timeouts, refused connections) into errors naming
+ * the endpoint and the configured timeouts, fails exchanges that exceed the overall deadline, and
+ * reports every outcome to the breaker. 5xx responses count as failures; 4xx responses do not.
+ * <p>
+ * The connect and read timeouts bound a stalled exchange; the deadline bounds the whole of it:
+ * when it passes the request is aborted ({@link ExchangeDeadline}), so a response trickling in
+ * slower than the deadline fails the call without waiting for the rest of it.
+ */
+public class ResilienceFilter implements Filter {
+
+	private static final int HTTP_SERVER_ERROR = 500;
+
+	private final EndpointPolicy policy;
+
+	public ResilienceFilter(EndpointPolicy policy) {
+		this.policy = policy;
+	}
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+			FilterContext ctx) {
+		if (policy.circuitBreaker() != null) {
+			policy.circuitBreaker().acquirePermission();
+		}
+		final String call = requestSpec.getMethod() + " " + requestSpec.getURI();
+		final long start = System.nanoTime();
+		// Every path out of the exchange reports to the breaker, or a half-open probe would never complete
+		String failure = "no outcome recorded";
+		try (ExchangeDeadline deadline = ExchangeDeadline.start(policy.deadline())) {
+			final Response response;
+			try {
+				response = ctx.next(requestSpec, responseSpec);
+				// RestAssured streams the body after the filters unless one reads it; read it within the deadline
+				response.asByteArray();
+			} catch (Exception e) {
+				final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				if (deadline.expired()) {
+					failure = deadlineExceeded(elapsed);
+					throw new IllegalStateException(call + " " + failure, e);
+				}
+				failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+				if (e instanceof IOException io) {
+					throw new UncheckedIOException("%s failed after %d ms (connect timeout %d ms, read timeout %d ms) - %s"
+							.formatted(call, elapsed, policy.connectTimeout().toMillis(), policy.readTimeout().toMillis(), failure), io);
+				}
+				throw e;
+			}
+
+			final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (deadline.expired() || elapsed > policy.deadline().toMillis()) {
+				failure = deadlineExceeded(elapsed);
+				throw new IllegalStateException(call + " " + failure);
+			}
+			failure = response.getStatusCode() >= HTTP_SERVER_ERROR ? "HTTP " + response.getStatusCode() : null;
+			return response;
+		} catch (Error e) {
+			failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+			throw e;
+		} finally {
+			if (policy.circuitBreaker() != null) {
+				if (failure == null) {
+					policy.circuitBreaker().onSuccess();
+				} else {
+					policy.circuitBreaker().onFailure(failure);
+				}
+			}
+		}
+	}
+
+	private String deadlineExceeded(long elapsed) {
+		return "deadline of " + policy.deadline().toMillis() + " ms exceeded (" + elapsed + " ms)";
+	}
+
+}
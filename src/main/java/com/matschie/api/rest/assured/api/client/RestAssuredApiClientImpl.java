@@ -6,27 +6,37 @@ import java.util.Map;
 import com.matschie.api.design.ApiClient;
 import com.matschie.api.design.ResponseAPI;
 
-import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
 
+/**
+ * Stateless: each call keeps its response in a local, so one client can be shared by parallel workers.
+ */
 public class RestAssuredApiClientImpl implements ApiClient {
 
-	private Response response;
-
-	private RequestSpecification given(RequestSpecBuilder requestBuilder) {
+	/**
+	 * Build the request with the endpoint's timeouts; the resilience filter is outermost so an open
+	 * circuit breaker rejects the call before anything is logged or sent.
+	 */
+	private RequestSpecification given(RequestSpecBuilder requestBuilder, String endPoint) {
+		RequestSpecification spec = requestBuilder.build();
+		EndpointPolicy policy = EndpointPolicy.forRequest(SpecificationQuerier.query(spec).getBasePath(), endPoint);
 		return RestAssured.given()
-				          .spec(requestBuilder.build())
+				          .spec(spec)
+				          .config(policy.restAssuredConfig())
+				          .filter(new ResilienceFilter(policy))
 				          .filter(new RestAssuredListener())
-				          .filter(new AllureRestAssured());
+				          .filter(new AllureHttpAttachments())
+				          .filter(new TimingFilter());
 	}
 
 	@Override
 	public ResponseAPI get(RequestSpecBuilder request, String endPoint) {
 
-		response = given(request).get(endPoint);
+		Response response = given(request, endPoint).get(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -34,7 +44,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI post(RequestSpecBuilder request, String endPoint, String body) {
 
-		response = given(request).body(body).post(endPoint);
+		Response response = given(request, endPoint).body(body).post(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -42,7 +52,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI post(RequestSpecBuilder request, String endPoint) {
 
-		response = given(request).post(endPoint);
+		Response response = given(request, endPoint).post(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -50,7 +60,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI post(RequestSpecBuilder request, String endPoint, File body) {
 		
-		response = given(request).body(body).post(endPoint);
+		Response response = given(request, endPoint).body(body).post(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -58,7 +68,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI post(RequestSpecBuilder request, String endPoint, Object body) {
 		
-		response = given(request).body(body).post(endPoint);
+		Response response = given(request, endPoint).body(body).post(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -66,7 +76,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI post(RequestSpecBuilder request, String endPoint, Map<String, Object> body) {
 		
-		response = given(request).formParams(body).post(endPoint);
+		Response response = given(request, endPoint).formParams(body).post(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -74,7 +84,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI put(RequestSpecBuilder request, String endPoint, String body) {
 		
-		response = given(request).body(body).put(endPoint);
+		Response response = given(request, endPoint).body(body).put(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -82,7 +92,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI put(RequestSpecBuilder request, String endPoint, File body) {
 		
-		response = given(request).body(body).put(endPoint);
+		Response response = given(request, endPoint).body(body).put(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -90,7 +100,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI put(RequestSpecBuilder request, String endPoint, Object body) {
 		
-		response = given(request).body(body).put(endPoint);
+		Response response = given(request, endPoint).body(body).put(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -98,7 +108,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI patch(RequestSpecBuilder request, String endPoint, String body) {
 		
-		response = given(request).body(body).patch(endPoint);
+		Response response = given(request, endPoint).body(body).patch(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -106,7 +116,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI patch(RequestSpecBuilder request, String endPoint, File body) {
 		
-		response = given(request).body(body).patch(endPoint);
+		Response response = given(request, endPoint).body(body).patch(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -114,7 +124,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI patch(RequestSpecBuilder request, String endPoint, Object body) {
 		
-		response = given(request).body(body).patch(endPoint);
+		Response response = given(request, endPoint).body(body).patch(endPoint);
 
 		return new RestAssuredResponseImpl(response);
 	}
@@ -122,7 +132,7 @@ public class RestAssuredApiClientImpl implements ApiClient {
 	@Override
 	public ResponseAPI delete(RequestSpecBuilder request, String endPoint) {
 		
-		response = given(request).delete(endPoint);
+		Response response = given(request, endPoint).delete(endPoint);
 		
 		return new RestAssuredResponseImpl(response);
 	}
@@ -1,5 +1,6 @@
 package com.matschie.api.rest.assured.api.client;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.json.JSONObject;
@@ -13,12 +14,16 @@ import io.restassured.specification.FilterableResponseSpecification;
 public class RestAssuredListener implements Filter {
 	
 	private static final Logger LOGGER = Logger.getLogger(RestAssuredListener.class.getName());
+	private static final int POOLED_BODY_PREFIX_BYTES = 256;
 
 	@Override
 	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
 			FilterContext ctx) {
 		
 		Response response = ctx.next(requestSpec, responseSpec);
+		if (!LOGGER.isLoggable(Level.INFO)) {
+			return response;
+		}
 		
 		LOGGER.info("""
 				    ============ Request Log ============
@@ -40,11 +45,25 @@ public class RestAssuredListener implements Filter {
 				    Response Content-Type: %s
 				    ======================================
 				    """.formatted(response.getStatusCode(), response.getStatusLine(),
-				    		      response.getBody().asPrettyString(), response.getHeaders().asList().toString(),
+				    		      describeBody(response), response.getHeaders().asList().toString(),
 				    		      response.getHeader("Content-Type")));
 		return response;
 	}
 	
+	/**
+	 * Pretty-printing re-serialises the body, and even a plain string copy of every body adds up when
+	 * bodies are pooled for volume; in that case only the size and a short prefix are logged.
+	 */
+	private String describeBody(Response response) {
+		if (!PooledBody.enabled()) {
+			return response.getBody().asPrettyString();
+		}
+		byte[] content = response.asByteArray();
+		int logged = Math.min(content.length, POOLED_BODY_PREFIX_BYTES);
+		String prefix = new String(content, 0, logged, RestAssuredResponseImpl.charset(response.getContentType()));
+		return content.length + " bytes" + (logged == 0 ? "" : ": " + prefix + (logged < content.length ? "..." : ""));
+	}
+	
 	private Object isRequestPayLoadNull(Object body) {
 		if (body != null) {
 			return new JSONObject(body.toString());
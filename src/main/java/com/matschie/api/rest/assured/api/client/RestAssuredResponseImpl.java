@@ -1,7 +1,13 @@
 package com.matschie.api.rest.assured.api.client;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import com.matschie.api.design.ResponseAPI;
 
@@ -9,12 +15,18 @@ import io.restassured.http.Header;
 import io.restassured.http.Headers;
 import io.restassured.response.Response;
 
+/**
+ * With {@code http.body.pooled} set, the body is copied into a {@link PooledBody} leased to the calling
+ * thread, and read from there rather than through RestAssured's string conversions.
+ */
 public class RestAssuredResponseImpl implements ResponseAPI {
 
 	private Response response;
+	private final PooledBody body;
 
 	public RestAssuredResponseImpl(Response response) {
 		this.response = response;
+		this.body = PooledBody.enabled() ? PooledBody.lease(response.asByteArray(), charset(response.getContentType())) : null;
 	}
 
 	@Override
@@ -32,7 +44,18 @@ public class RestAssuredResponseImpl implements ResponseAPI {
 
 	@Override
 	public String getBody() {
-		return response.getBody().asPrettyString();
+		return body != null ? body.chars().toString() : response.getBody().asPrettyString();
+	}
+
+	@Override
+	public ByteBuffer getBodyBytes() {
+		return body != null ? body.bytes() : ByteBuffer.wrap(response.asByteArray()).asReadOnlyBuffer();
+	}
+
+	@Override
+	public CharBuffer getBodyChars() {
+		// Decoded straight from the bytes, as pooled bodies are, rather than through an intermediate string
+		return body != null ? body.chars() : charset(response.getContentType()).decode(ByteBuffer.wrap(response.asByteArray())).asReadOnlyBuffer();
 	}
 
 	@Override
@@ -51,4 +74,25 @@ public class RestAssuredResponseImpl implements ResponseAPI {
 		return values[0];
 	}
 
+	@Override
+	public Duration getResponseTime() {
+		return Duration.ofMillis(response.getTimeIn(TimeUnit.MILLISECONDS));
+	}
+
+	static Charset charset(String contentType) { // application/json;charset=UTF-8
+		if (contentType != null) {
+			for (String parameter : contentType.split(";")) {
+				String[] pair = parameter.trim().split("=", 2);
+				if (pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+					try {
+						return Charset.forName(pair[1].replace("\"", "").trim());
+					} catch (IllegalArgumentException e) {
+						break;
+					}
+				}
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.matschie.api.rest.assured.api.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import com.matschie.general.jfr.HttpRequestEvent;
+import com.matschie.general.utils.TimingRecorder;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the wall time of each HTTP exchange into {@link TimingRecorder}.
+ * Registered as the innermost filter so logging and attachment filters are not counted.
+ * The HTTP client does not expose DNS/connect/TLS splits, so the phase detail carries
+ * the client-measured response time and payload size alongside the wall time.
+ * Each exchange is also emitted as a Flight Recorder {@link HttpRequestEvent} and recorded into the
+ * {@link HttpLatency} of its endpoint.
+ * The first request of the JVM logs the time since JVM start (time to first request),
+ * the figure that fast-startup tuning is measured by.
+ */
+public class TimingFilter implements Filter {
+
+	private static final Logger LOGGER = Logger.getLogger(TimingFilter.class.getName());
+	private static final AtomicBoolean FIRST_REQUEST = new AtomicBoolean(true);
+
+	@Override
+	public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+			FilterContext ctx) {
+		if (FIRST_REQUEST.compareAndSet(true, false)) {
+			final long sinceStart = ManagementFactory.getRuntimeMXBean().getUptime();
+			LOGGER.info(() -> "Time to first request: " + sinceStart + " ms since JVM start");
+		}
+		final HttpRequestEvent event = new HttpRequestEvent();
+		event.begin();
+		final long start = System.nanoTime();
+		Response response = null;
+		final HttpLatency latency = HttpLatency.forEndpoint(
+				EndpointPolicy.endpointName(requestSpec.getBasePath(), requestSpec.getDerivedPath()));
+		try {
+			response = ctx.next(requestSpec, responseSpec);
+			final long elapsed = System.nanoTime() - start;
+			TimingRecorder.record(TimingRecorder.PHASE_HTTP, "%s %s -> %d (response %d ms, %d B)".formatted(
+					requestSpec.getMethod(), requestSpec.getURI(), response.getStatusCode(),
+					response.getTimeIn(TimeUnit.MILLISECONDS), response.asByteArray().length), elapsed);
+			return response;
+		} finally {
+			latency.record(System.nanoTime() - start, response == null || response.getStatusCode() >= 500);
+			if (event.shouldCommit()) {
+				event.method = requestSpec.getMethod();
+				event.endpoint = requestSpec.getURI();
+				event.status = response == null ? 0 : response.getStatusCode();
+				event.bytes = response == null ? 0 : response.asByteArray().length;
+				event.commit();
+			}
+		}
+	}
+
+}
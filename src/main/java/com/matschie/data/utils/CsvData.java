@@ -0,0 +1,42 @@
+package com.matschie.data.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+public class CsvData {
+
+	/**
+	 * Lazily stream the rows of a simple CSV file from the classpath ({@code data/<fileName>.csv}).
+	 * The header line, blank lines and lines starting with '#' are skipped; fields are split on
+	 * commas (no quoting) and trimmed. Rows are read on demand, so close the stream when done.
+	 * @param fileName file name without folder or extension, e.g. "postcode-areas"
+	 * @return stream of rows
+	 * @throws IllegalArgumentException if the file is not on the classpath
+	 */
+	public Stream<String[]> stream(String fileName) {
+		String resource = "data/" + fileName + ".csv";
+		InputStream inputStream = CsvData.class.getClassLoader().getResourceAsStream(resource);
+		if (inputStream == null) {
+			throw new IllegalArgumentException("Unable to find '" + resource + "' file in classpath");
+		}
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		return reader.lines()
+				     .skip(1)
+				     .map(String::trim)
+				     .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+				     .map(line -> line.split("\\s*,\\s*"))
+				     .onClose(() -> {
+				    	 try {
+				    		 reader.close();
+				    	 } catch (IOException e) {
+				    		 throw new UncheckedIOException(e);
+				    	 }
+				     });
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.matschie.general.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP exchange sent through the API client; the event duration is the exchange's wall time.
+ */
+@Name("com.matschie.HttpRequest")
+@Label("HTTP Request")
+@Category({"API Automation", "HTTP"})
+@Description("HTTP exchange sent through the API client")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Status")
+	@Description("HTTP status code, 0 if no response was received")
+	public int status;
+
+	@Label("Response Size")
+	@DataAmount
+	public long bytes;
+
+}
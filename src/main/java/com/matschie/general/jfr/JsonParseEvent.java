@@ -0,0 +1,25 @@
+package com.matschie.general.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of a response body into JSON (a {@code json-parse} timing phase).
+ */
+@Name("com.matschie.JsonParse")
+@Label("JSON Parse")
+@Category({"API Automation", "Validation"})
+@Description("Response body parsed into JSON")
+@StackTrace(false)
+public class JsonParseEvent extends jdk.jfr.Event {
+
+	@Label("Detail")
+	public String detail;
+
+	@Label("Failed")
+	public boolean failed;
+
+}
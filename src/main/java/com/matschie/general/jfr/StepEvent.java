@@ -0,0 +1,28 @@
+package com.matschie.general.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Cucumber step, from step started to step finished.
+ */
+@Name("com.matschie.Step")
+@Label("Cucumber Step")
+@Category({"API Automation", "Cucumber"})
+@Description("Gherkin step execution, including hooks run as steps")
+@StackTrace(false)
+public class StepEvent extends jdk.jfr.Event {
+
+	@Label("Scenario")
+	public String scenario;
+
+	@Label("Step")
+	public String step;
+
+	@Label("Status")
+	public String status;
+
+}
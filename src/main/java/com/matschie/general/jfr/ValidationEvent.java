@@ -0,0 +1,26 @@
+package com.matschie.general.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evaluation of response assertions (a {@code validation} timing phase).
+ */
+@Name("com.matschie.Validation")
+@Label("Validation")
+@Category({"API Automation", "Validation"})
+@Description("Assertions evaluated against a response")
+@StackTrace(false)
+public class ValidationEvent extends jdk.jfr.Event {
+
+	@Label("Detail")
+	public String detail;
+
+	@Label("Failed")
+	@Description("True if the validation threw, e.g. an assertion error")
+	public boolean failed;
+
+}
@@ -0,0 +1,72 @@
+package com.matschie.general.utils;
+
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * {@link Reader} over a {@link CharBuffer}, so parsers that take a reader (e.g. {@code JSONTokener})
+ * read text held in a buffer without copying it into a {@code String}. Supports mark/reset, so
+ * callers need not wrap it in a {@code BufferedReader}. Not thread-safe.
+ */
+public final class CharBufferReader extends Reader {
+
+	private final CharBuffer chars;
+
+	/**
+	 * @param chars text to read from its position to its limit; the reader works on a duplicate
+	 */
+	public CharBufferReader(CharBuffer chars) {
+		this.chars = chars.duplicate();
+	}
+
+	@Override
+	public int read() {
+		return chars.hasRemaining() ? chars.get() : -1;
+	}
+
+	@Override
+	public int read(char[] buffer, int offset, int length) {
+		if (length == 0) {
+			return 0;
+		}
+		if (!chars.hasRemaining()) {
+			return -1;
+		}
+		final int count = Math.min(length, chars.remaining());
+		chars.get(buffer, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long count) {
+		final int skipped = (int) Math.min(Math.max(count, 0), chars.remaining());
+		chars.position(chars.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public boolean ready() {
+		return true;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public void mark(int readAheadLimit) {
+		chars.mark();
+	}
+
+	@Override
+	public void reset() {
+		chars.reset();
+	}
+
+	@Override
+	public void close() {
+		// Nothing to release; the buffer belongs to the caller
+	}
+
+}
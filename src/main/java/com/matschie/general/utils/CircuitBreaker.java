@@ -0,0 +1,160 @@
+package com.matschie.general.utils;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Count-based circuit breaker.
+ * <ul>
+ * <li>CLOSED: calls pass; the outcomes of the last {@code windowSize} calls are kept and once at least
+ *     {@code minimumCalls} have been seen and the failure rate reaches the threshold, the breaker opens;</li>
+ * <li>OPEN: calls are rejected immediately with {@link OpenException} until {@code openDuration} has passed;</li>
+ * <li>HALF_OPEN: up to {@code halfOpenProbes} calls are let through; if they all succeed the breaker
+ *     closes, a single failure opens it again.</li>
+ * </ul>
+ * Thread-safe; one instance is meant to be shared by every caller of the same backend.
+ */
+public final class CircuitBreaker {
+
+	private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/**
+	 * Thrown when a call is rejected because the breaker is open.
+	 */
+	public static final class OpenException extends IllegalStateException {
+
+		private static final long serialVersionUID = 1L;
+
+		OpenException(String message) {
+			super(message);
+		}
+	}
+
+	private final String name;
+	private final double failureRateThreshold;
+	private final int minimumCalls;
+	private final long openNanos;
+	private final int halfOpenProbes;
+	private final boolean[] outcomes;
+
+	private State state = State.CLOSED;
+	private int next;
+	private int calls;
+	private int failures;
+	private long openedAt;
+	private int probesStarted;
+	private int probesSucceeded;
+	private String lastFailure;
+	private String openReason;
+
+	/**
+	 * @param name backend name used in messages, e.g. "parcelshop"
+	 * @param failureRateThreshold failure percentage (0-100) at which the breaker opens
+	 * @param windowSize number of recent calls the failure rate is computed over
+	 * @param minimumCalls calls needed in the window before the rate is evaluated
+	 * @param openDuration how long to reject calls before probing again
+	 * @param halfOpenProbes successful probes needed to close again
+	 */
+	public CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+			Duration openDuration, int halfOpenProbes) {
+		this.name = name;
+		this.failureRateThreshold = failureRateThreshold;
+		this.outcomes = new boolean[Math.max(1, windowSize)];
+		this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+		this.openNanos = openDuration.toNanos();
+		this.halfOpenProbes = Math.max(1, halfOpenProbes);
+	}
+
+	/**
+	 * Ask for permission to make a call.
+	 * @throws OpenException if the breaker is open, or half-open with all probes already in flight
+	 */
+	public synchronized void acquirePermission() {
+		if (state == State.OPEN) {
+			if (System.nanoTime() - openedAt < openNanos) {
+				throw new OpenException("Circuit breaker '" + name + "' is OPEN - " + openReason + "; retrying in "
+						+ Duration.ofNanos(openNanos - (System.nanoTime() - openedAt)).toMillis() + " ms");
+			}
+			transition(State.HALF_OPEN);
+			probesStarted = 0;
+			probesSucceeded = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (probesStarted >= halfOpenProbes) {
+				throw new OpenException("Circuit breaker '" + name + "' is HALF_OPEN - waiting for " + halfOpenProbes
+						+ " probe call(s) after: " + openReason);
+			}
+			probesStarted++;
+		}
+	}
+
+	/**
+	 * Record a successful call.
+	 */
+	public synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++probesSucceeded >= halfOpenProbes) {
+				transition(State.CLOSED);
+				next = 0;
+				calls = 0;
+				failures = 0;
+			}
+		} else if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	/**
+	 * Record a failed call.
+	 * @param cause short description of the failure, reported while the breaker is open
+	 */
+	public synchronized void onFailure(String cause) {
+		lastFailure = cause;
+		if (state == State.HALF_OPEN) {
+			open("probe failed: " + cause);
+		} else if (state == State.CLOSED) {
+			record(true);
+			if (calls >= minimumCalls && failures * 100.0 / calls >= failureRateThreshold) {
+				open(failures + " of the last " + calls + " calls failed (last: " + lastFailure + ")");
+			}
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	private void record(boolean failed) {
+		if (calls == outcomes.length) {
+			if (outcomes[next]) {
+				failures--;
+			}
+		} else {
+			calls++;
+		}
+		outcomes[next] = failed;
+		if (failed) {
+			failures++;
+		}
+		next = (next + 1) % outcomes.length;
+	}
+
+	private void open(String reason) {
+		openReason = reason;
+		openedAt = System.nanoTime();
+		transition(State.OPEN);
+	}
+
+	private void transition(State target) {
+		if (state != target) {
+			LOGGER.warning("Circuit breaker '" + name + "' " + state + " -> " + target
+					+ (target == State.OPEN ? ": " + openReason : ""));
+			state = target;
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.matschie.general.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct {@link ByteBuffer}s in power-of-two size classes from 4 KiB up to a maximum buffer size,
+ * for keeping large short-lived payloads off the heap and reusing their memory instead of allocating it per use.
+ * Released buffers are kept while the idle total stays within a bound; beyond it they are left to be freed by
+ * the garbage collector. Thread-safe.
+ */
+public final class DirectBufferPool {
+
+	private static final int MIN_CLASS_SHIFT = 12;
+
+	private final int maxBufferBytes;
+	private final long maxIdleBytes;
+	private final List<Queue<ByteBuffer>> idle = new ArrayList<>();
+	private final AtomicLong idleBytes = new AtomicLong();
+	private final AtomicLong allocated = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+
+	/**
+	 * @param maxBufferBytes largest buffer the pool hands out, rounded up to a power of two
+	 * @param maxIdleBytes most memory kept in released buffers
+	 * @throws IllegalArgumentException if maxBufferBytes is not positive or above 1 GiB
+	 */
+	public DirectBufferPool(int maxBufferBytes, long maxIdleBytes) {
+		if (maxBufferBytes <= 0 || maxBufferBytes > 1 << 30) {
+			throw new IllegalArgumentException("maxBufferBytes must be between 1 and 1 GiB: " + maxBufferBytes);
+		}
+		this.maxBufferBytes = classSize(sizeClass(maxBufferBytes));
+		this.maxIdleBytes = maxIdleBytes;
+		for (int i = 0; i <= sizeClass(this.maxBufferBytes); i++) {
+			idle.add(new ConcurrentLinkedQueue<>());
+		}
+	}
+
+	/**
+	 * @return largest capacity {@link #acquire(int)} accepts
+	 */
+	public int maxBufferBytes() {
+		return maxBufferBytes;
+	}
+
+	/**
+	 * @param capacity bytes needed
+	 * @return a cleared direct buffer of at least that capacity, limited to it
+	 * @throws IllegalArgumentException if capacity is negative or above {@link #maxBufferBytes()}
+	 */
+	public ByteBuffer acquire(int capacity) {
+		if (capacity < 0 || capacity > maxBufferBytes) {
+			throw new IllegalArgumentException("Capacity must be between 0 and " + maxBufferBytes + ": " + capacity);
+		}
+		final int sizeClass = sizeClass(capacity);
+		ByteBuffer buffer = idle.get(sizeClass).poll();
+		if (buffer != null) {
+			idleBytes.addAndGet(-buffer.capacity());
+			reused.incrementAndGet();
+		} else {
+			buffer = ByteBuffer.allocateDirect(classSize(sizeClass));
+			allocated.incrementAndGet();
+		}
+		buffer.clear().limit(capacity);
+		return buffer;
+	}
+
+	/**
+	 * Return a buffer to the pool; it must not be used afterwards, nor any view of it.
+	 * @param buffer buffer obtained from {@link #acquire(int)}
+	 * @throws IllegalArgumentException if the buffer does not come from this pool
+	 */
+	public void release(ByteBuffer buffer) {
+		final int sizeClass = sizeClass(buffer.capacity());
+		if (!buffer.isDirect() || buffer.capacity() != classSize(sizeClass) || sizeClass >= idle.size()) {
+			throw new IllegalArgumentException("Buffer of " + buffer.capacity() + " bytes does not come from this pool");
+		}
+		if (idleBytes.addAndGet(buffer.capacity()) > maxIdleBytes) {
+			idleBytes.addAndGet(-buffer.capacity());
+			return;
+		}
+		idle.get(sizeClass).add(buffer);
+	}
+
+	/**
+	 * @return e.g. "12 allocated, 48000 reused, 256 KiB idle"
+	 */
+	@Override
+	public String toString() {
+		return allocated + " allocated, " + reused + " reused, " + idleBytes.get() / 1024 + " KiB idle";
+	}
+
+	private static int sizeClass(int capacity) {
+		return Math.max(0, 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity) - 1) - MIN_CLASS_SHIFT);
+	}
+
+	private static int classSize(int sizeClass) {
+		return 1 << (sizeClass + MIN_CLASS_SHIFT);
+	}
+
+}
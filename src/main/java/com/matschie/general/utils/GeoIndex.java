@@ -0,0 +1,156 @@
+package com.matschie.general.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable KD-tree over latitude/longitude points for exact k-nearest-neighbour queries.
+ * Points are projected onto the unit sphere (x, y, z) where straight-line (chord) distance grows
+ * monotonically with great-circle distance, so a plain 3-D KD-tree gives exact geodesic neighbours
+ * in O(log n) per query on average. Reported distances use the haversine formula.
+ * @param <T> payload stored with each point, e.g. a parcelshop id
+ */
+public final class GeoIndex<T> {
+
+	public static final double EARTH_RADIUS_KM = 6371.0088;
+
+	/**
+	 * Point to index.
+	 * @param value payload
+	 * @param latitude degrees
+	 * @param longitude degrees
+	 */
+	public record Entry<T>(T value, double latitude, double longitude) {
+	}
+
+	/**
+	 * Query result.
+	 * @param value payload
+	 * @param latitude degrees
+	 * @param longitude degrees
+	 * @param distanceKm great-circle distance from the query point
+	 */
+	public record Neighbour<T>(T value, double latitude, double longitude, double distanceKm) {
+	}
+
+	private final List<Entry<T>> entries;
+	private final double[] xyz;
+	private final int[] tree;
+
+	/**
+	 * Build the index. Construction is O(n log^2 n); the index is read-only afterwards and safe to share.
+	 * @param entries points to index
+	 */
+	public GeoIndex(List<Entry<T>> entries) {
+		this.entries = List.copyOf(entries);
+		final int size = this.entries.size();
+		this.xyz = new double[size * 3];
+		this.tree = new int[size];
+		for (int i = 0; i < size; i++) {
+			final Entry<T> entry = this.entries.get(i);
+			toUnitVector(entry.latitude(), entry.longitude(), xyz, i * 3);
+			tree[i] = i;
+		}
+		build(0, size, 0);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Find the k points nearest to a location.
+	 * @param latitude query latitude in degrees
+	 * @param longitude query longitude in degrees
+	 * @param k number of neighbours
+	 * @return up to k neighbours, nearest first
+	 */
+	public List<Neighbour<T>> nearest(double latitude, double longitude, int k) {
+		final List<Neighbour<T>> result = new ArrayList<>();
+		if (k <= 0 || tree.length == 0) {
+			return result;
+		}
+		final double[] query = new double[3];
+		toUnitVector(latitude, longitude, query, 0);
+		// Max-heap on squared chord distance: {distance, point index}
+		final PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble((double[] c) -> c[0]).reversed());
+		search(query, 0, tree.length, 0, k, best);
+
+		final List<double[]> ordered = new ArrayList<>(best);
+		ordered.sort(Comparator.comparingDouble(c -> c[0]));
+		for (double[] candidate : ordered) {
+			final Entry<T> entry = entries.get((int) candidate[1]);
+			result.add(new Neighbour<>(entry.value(), entry.latitude(), entry.longitude(),
+					haversineKm(latitude, longitude, entry.latitude(), entry.longitude())));
+		}
+		return result;
+	}
+
+	/**
+	 * Great-circle distance between two points.
+	 * @return distance in kilometres
+	 */
+	public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+		final double dLat = Math.toRadians(lat2 - lat1);
+		final double dLon = Math.toRadians(lon2 - lon1);
+		final double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+				+ Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	private void build(int from, int to, int depth) {
+		if (to - from <= 1) {
+			return;
+		}
+		final int axis = depth % 3;
+		final Integer[] slice = new Integer[to - from];
+		for (int i = from; i < to; i++) {
+			slice[i - from] = tree[i];
+		}
+		Arrays.sort(slice, Comparator.comparingDouble(point -> xyz[point * 3 + axis]));
+		for (int i = from; i < to; i++) {
+			tree[i] = slice[i - from];
+		}
+		final int middle = (from + to) >>> 1;
+		build(from, middle, depth + 1);
+		build(middle + 1, to, depth + 1);
+	}
+
+	private void search(double[] query, int from, int to, int depth, int k, PriorityQueue<double[]> best) {
+		if (from >= to) {
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		final int point = tree[middle];
+		final double dx = xyz[point * 3] - query[0];
+		final double dy = xyz[point * 3 + 1] - query[1];
+		final double dz = xyz[point * 3 + 2] - query[2];
+		final double distance = dx * dx + dy * dy + dz * dz;
+		if (best.size() < k) {
+			best.add(new double[] {distance, point});
+		} else if (distance < best.peek()[0]) {
+			best.poll();
+			best.add(new double[] {distance, point});
+		}
+
+		final int axis = depth % 3;
+		final double diff = query[axis] - xyz[point * 3 + axis];
+		final boolean leftFirst = diff < 0;
+		search(query, leftFirst ? from : middle + 1, leftFirst ? middle : to, depth + 1, k, best);
+		if (best.size() < k || diff * diff < best.peek()[0]) {
+			search(query, leftFirst ? middle + 1 : from, leftFirst ? to : middle, depth + 1, k, best);
+		}
+	}
+
+	private static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+		final double lat = Math.toRadians(latitude);
+		final double lon = Math.toRadians(longitude);
+		target[offset] = Math.cos(lat) * Math.cos(lon);
+		target[offset + 1] = Math.cos(lat) * Math.sin(lon);
+		target[offset + 2] = Math.sin(lat);
+	}
+
+}
@@ -2,16 +2,66 @@ package com.matschie.general.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Thread-safe utility class for loading and accessing properties files.
- * Properties are loaded once at class initialization for optimal performance.
+ * <p>
+ * Values are resolved through layers, highest precedence first:
+ * <ol>
+ * <li>JVM system properties ({@code -Dparcelshop.base.uri=...})</li>
+ * <li>Environment variables ({@code PARCELSHOP_BASE_URI})</li>
+ * <li>Profile file selected by {@code config.profile} ({@code config-<profile>.properties}
+ * on the classpath) and/or an external file given by {@code config.file}</li>
+ * <li>Defaults from {@code config.properties} / {@code secret.properties}</li>
+ * </ol>
+ * Resolved and typed values are cached in an immutable snapshot that readers access
+ * without locking. {@link #reload()} swaps in a fresh snapshot; with {@code config.watch=true}
+ * this happens automatically whenever a profile or override file changes on disk.
  */
 public class PropertiesHandlers {
-	
-	private static final Properties CONFIG_PROPERTIES = loadProperties("config.properties", true);
-	private static final Properties SECRET_PROPERTIES = loadProperties("secret.properties", false);
+
+	private static final Logger LOGGER = Logger.getLogger(PropertiesHandlers.class.getName());
+
+	private static final String CONFIG_FILE = "config";
+	private static final String SECRET_FILE = "secret";
+	private static final String PROFILE_KEY = "config.profile";
+	private static final String OVERRIDE_FILE_KEY = "config.file";
+	private static final String SECRET_OVERRIDE_FILE_KEY = "secret.file";
+	private static final String WATCH_KEY = "config.watch";
+
+	private static final AtomicReference<Snapshot> SNAPSHOT = new AtomicReference<>(Snapshot.load());
+	private static final List<Runnable> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+	static {
+		if (Boolean.parseBoolean(bootstrap(WATCH_KEY))) {
+			startWatching(SNAPSHOT.get().watchedFiles());
+		}
+	}
 
 	/**
 	 * Get configuration property value by key.
@@ -19,7 +69,7 @@ public class PropertiesHandlers {
 	 * @return property value or null if not found
 	 */
 	public static String config(String key) {
-		return CONFIG_PROPERTIES.getProperty(key);
+		return SNAPSHOT.get().config(key);
 	}
 
 	/**
@@ -28,7 +78,68 @@ public class PropertiesHandlers {
 	 * @return property value or null if not found
 	 */
 	public static String secret(String key) {
-		return SECRET_PROPERTIES.getProperty(key);
+		return SNAPSHOT.get().secret(key);
+	}
+
+	/**
+	 * Get configuration property as an int, parsed once per snapshot.
+	 * @param key property key
+	 * @param defaultValue value returned when the key is not set
+	 * @return parsed value or defaultValue
+	 * @throws IllegalArgumentException if the value is not a valid integer
+	 */
+	public static int configInt(String key, int defaultValue) {
+		return SNAPSHOT.get().typed(key, "int", Integer::valueOf).orElse(defaultValue);
+	}
+
+	/**
+	 * Get configuration property as a boolean, parsed once per snapshot.
+	 * Accepts true/false, yes/no, on/off and 1/0.
+	 * @param key property key
+	 * @param defaultValue value returned when the key is not set
+	 * @return parsed value or defaultValue
+	 * @throws IllegalArgumentException if the value is not a recognised boolean
+	 */
+	public static boolean configBoolean(String key, boolean defaultValue) {
+		return SNAPSHOT.get().typed(key, "boolean", PropertiesHandlers::parseBoolean).orElse(defaultValue);
+	}
+
+	/**
+	 * Get configuration property as a Duration, parsed once per snapshot.
+	 * Accepts ISO-8601 ({@code PT30S}), suffixed values ({@code 250ms}, {@code 30s}, {@code 5m}, {@code 1h})
+	 * or a bare number of milliseconds.
+	 * @param key property key
+	 * @param defaultValue value returned when the key is not set
+	 * @return parsed value or defaultValue
+	 * @throws IllegalArgumentException if the value is not a valid duration
+	 */
+	public static Duration configDuration(String key, Duration defaultValue) {
+		return SNAPSHOT.get().typed(key, "duration", PropertiesHandlers::parseDuration).orElse(defaultValue);
+	}
+
+	/**
+	 * Re-read every layer and atomically publish a new snapshot.
+	 * Call after changing system properties at runtime; file changes are picked up
+	 * automatically when {@code config.watch=true}.
+	 */
+	public static void reload() {
+		SNAPSHOT.set(Snapshot.load());
+		RELOAD_LISTENERS.forEach(listener -> {
+			try {
+				listener.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Config reload listener failed", e);
+			}
+		});
+	}
+
+	/**
+	 * Register a callback invoked after every {@link #reload()}.
+	 * Useful for components that copy tuning knobs (pool sizes, rate limits) into their own state.
+	 * @param listener callback to run on reload
+	 */
+	public static void onReload(Runnable listener) {
+		RELOAD_LISTENERS.add(listener);
 	}
 
 	/**
@@ -56,4 +167,211 @@ public class PropertiesHandlers {
 		return properties;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Load properties file from the filesystem.
+	 * @param path properties file path
+	 * @return loaded Properties object (empty if the file does not exist)
+	 * @throws RuntimeException if the file exists but cannot be read
+	 */
+	private static Properties loadProperties(Path path) {
+		Properties properties = new Properties();
+		if (!Files.isRegularFile(path)) {
+			return properties;
+		}
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			properties.load(inputStream);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to load '" + path + "': " + e.getMessage(), e);
+		}
+		return properties;
+	}
+
+	/**
+	 * Resolve a bootstrap key (profile, override file, watch flag) from system properties or environment only.
+	 */
+	private static String bootstrap(String key) {
+		String value = System.getProperty(key);
+		return value != null ? value : System.getenv(toEnvName(key));
+	}
+
+	/**
+	 * Map a property key to its environment variable name, e.g. parcelshop.base.uri -> PARCELSHOP_BASE_URI.
+	 */
+	static String toEnvName(String key) {
+		return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+	}
+
+	static Boolean parseBoolean(String raw) {
+		return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+			case "true", "yes", "on", "1" -> Boolean.TRUE;
+			case "false", "no", "off", "0" -> Boolean.FALSE;
+			default -> throw new IllegalArgumentException("Not a boolean: '" + raw + "'");
+		};
+	}
+
+	static Duration parseDuration(String raw) {
+		String value = raw.trim().toLowerCase(Locale.ROOT);
+		if (value.startsWith("p")) {
+			return Duration.parse(value.toUpperCase(Locale.ROOT));
+		}
+		if (value.endsWith("ms")) {
+			return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+		}
+		char unit = value.charAt(value.length() - 1);
+		if (Character.isDigit(unit)) {
+			return Duration.ofMillis(Long.parseLong(value));
+		}
+		long amount = Long.parseLong(value.substring(0, value.length() - 1).trim());
+		return switch (unit) {
+			case 's' -> Duration.ofSeconds(amount);
+			case 'm' -> Duration.ofMinutes(amount);
+			case 'h' -> Duration.ofHours(amount);
+			default -> throw new IllegalArgumentException("Unknown duration unit '" + unit + "' in '" + raw + "'");
+		};
+	}
+
+	/**
+	 * Start a daemon thread that reloads the snapshot whenever one of the given files changes.
+	 */
+	private static void startWatching(List<Path> files) {
+		if (files.isEmpty()) {
+			LOGGER.warning("config.watch=true but no filesystem profile/override file is in use - nothing to watch");
+			return;
+		}
+		Thread watcher = new Thread(() -> watch(files), "config-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	private static void watch(List<Path> files) {
+		try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+			for (Path directory : files.stream().map(Path::getParent).distinct().toList()) {
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+			}
+			while (true) {
+				WatchKey key = watchService.take();
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					Path changedFile = ((Path) key.watchable()).resolve((Path) event.context());
+					changed |= files.contains(changedFile);
+				}
+				key.reset();
+				if (changed) {
+					LOGGER.info("Configuration file changed - reloading " + files);
+					try {
+						reload();
+					} catch (RuntimeException e) {
+						LOGGER.log(Level.WARNING, "Config reload failed, keeping previous snapshot", e);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | ClosedWatchServiceException e) {
+			LOGGER.log(Level.WARNING, "Config watcher stopped", e);
+		}
+	}
+
+	/**
+	 * Immutable view of all configuration layers. Resolved lookups and typed conversions are
+	 * memoised per snapshot, so a reload naturally invalidates them.
+	 */
+	private record Snapshot(Layer config, Layer secret, Map<String, Optional<Object>> typedCache) {
+
+		static Snapshot load() {
+			String profile = bootstrap(PROFILE_KEY);
+			return new Snapshot(
+					Layer.load(CONFIG_FILE, true, profile, bootstrap(OVERRIDE_FILE_KEY)),
+					Layer.load(SECRET_FILE, false, profile, bootstrap(SECRET_OVERRIDE_FILE_KEY)),
+					new ConcurrentHashMap<>());
+		}
+
+		String config(String key) {
+			return config.resolve(key);
+		}
+
+		String secret(String key) {
+			return secret.resolve(key);
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> Optional<T> typed(String key, String type, Function<String, T> parser) {
+			return (Optional<T>) typedCache.computeIfAbsent(type + ':' + key, cacheKey -> {
+				String raw = config(key);
+				if (raw == null || raw.isBlank()) {
+					return Optional.empty();
+				}
+				try {
+					return Optional.of(parser.apply(raw.trim()));
+				} catch (RuntimeException e) {
+					throw new IllegalArgumentException(
+							"Invalid " + type + " value '" + raw + "' for config key '" + key + "'", e);
+				}
+			});
+		}
+
+		List<Path> watchedFiles() {
+			List<Path> files = new ArrayList<>(config.files());
+			files.addAll(secret.files());
+			return files;
+		}
+	}
+
+	/**
+	 * One logical properties file (config or secret) with its profile/override files merged over the defaults.
+	 */
+	private record Layer(Map<String, String> fileValues, List<Path> files, Map<String, Optional<String>> resolved) {
+
+		static Layer load(String baseName, boolean required, String profile, String overrideFile) {
+			Map<String, String> values = new HashMap<>();
+			List<Path> files = new ArrayList<>();
+			putAll(values, loadProperties(baseName + ".properties", required));
+			if (profile != null && !profile.isBlank()) {
+				String profileFile = baseName + "-" + profile.trim() + ".properties";
+				URL resource = PropertiesHandlers.class.getClassLoader().getResource(profileFile);
+				Path profilePath = toPath(resource);
+				if (profilePath != null) {
+					files.add(profilePath);
+					putAll(values, loadProperties(profilePath));
+				} else {
+					putAll(values, loadProperties(profileFile, false));
+				}
+			}
+			if (overrideFile != null && !overrideFile.isBlank()) {
+				Path overridePath = Paths.get(overrideFile.trim()).toAbsolutePath().normalize();
+				files.add(overridePath);
+				putAll(values, loadProperties(overridePath));
+			}
+			return new Layer(Map.copyOf(values), List.copyOf(files), new ConcurrentHashMap<>());
+		}
+
+		String resolve(String key) {
+			return resolved.computeIfAbsent(key, k -> {
+				String value = System.getProperty(k);
+				if (value == null) {
+					value = System.getenv(toEnvName(k));
+				}
+				if (value == null) {
+					value = fileValues.get(k);
+				}
+				return Optional.ofNullable(value);
+			}).orElse(null);
+		}
+
+		private static void putAll(Map<String, String> target, Properties properties) {
+			properties.stringPropertyNames().forEach(name -> target.put(name, properties.getProperty(name)));
+		}
+
+		private static Path toPath(URL resource) {
+			if (resource == null || !"file".equals(resource.getProtocol())) {
+				return null;
+			}
+			try {
+				return Paths.get(resource.toURI()).toAbsolutePath().normalize();
+			} catch (URISyntaxException e) {
+				return null;
+			}
+		}
+	}
+
+}
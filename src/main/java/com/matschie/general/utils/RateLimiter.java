@@ -0,0 +1,43 @@
+package com.matschie.general.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free fixed-rate limiter shared by concurrent callers.
+ * Each {@link #acquire()} reserves the next free time slot with a single CAS and parks until it arrives,
+ * so requests are spread evenly instead of bursting.
+ */
+public final class RateLimiter {
+
+	private final long intervalNanos;
+	private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+	/**
+	 * @param permitsPerSecond maximum rate; zero or negative means unlimited
+	 */
+	public RateLimiter(double permitsPerSecond) {
+		this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+	}
+
+	/**
+	 * Block until the caller may proceed.
+	 */
+	public void acquire() {
+		if (intervalNanos == 0) {
+			return;
+		}
+		final long now = System.nanoTime();
+		final long previous = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos);
+		final long slot = Math.max(previous, now);
+		long remaining;
+		while ((remaining = slot - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.matschie.general.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.matschie.general.jfr.JsonParseEvent;
+import com.matschie.general.jfr.ValidationEvent;
+
+import jdk.jfr.Event;
+
+/**
+ * Thread-local collector of timed phases (HTTP call, JSON parse, validation) for the step
+ * currently executing on this thread. Reporters drain it when a step finishes.
+ * Timed json-parse and validation phases are also emitted as Flight Recorder events
+ * ({@link JsonParseEvent}, {@link ValidationEvent}) when a recording has them enabled.
+ */
+public final class TimingRecorder {
+
+	public static final String PHASE_HTTP = "http";
+	public static final String PHASE_JSON_PARSE = "json-parse";
+	public static final String PHASE_VALIDATION = "validation";
+
+	private static final ThreadLocal<List<Phase>> PHASES = ThreadLocal.withInitial(ArrayList::new);
+
+	/**
+	 * A single timed phase.
+	 * @param name phase category (http, json-parse, validation, ...)
+	 * @param detail free-text detail, e.g. "GET https://host/path -> 200"
+	 * @param nanos elapsed wall time in nanoseconds
+	 */
+	public record Phase(String name, String detail, long nanos) {
+
+		public double millis() {
+			return nanos / 1_000_000.0;
+		}
+	}
+
+	private TimingRecorder() {
+	}
+
+	/**
+	 * Record an already measured phase on the current thread.
+	 * @param name phase category
+	 * @param detail phase detail
+	 * @param nanos elapsed time in nanoseconds
+	 */
+	public static void record(String name, String detail, long nanos) {
+		PHASES.get().add(new Phase(name, detail, nanos));
+	}
+
+	/**
+	 * Time an action and record it as a phase.
+	 * @param name phase category
+	 * @param detail phase detail
+	 * @param action action to time
+	 * @return the action's result
+	 */
+	public static <T> T time(String name, String detail, Supplier<T> action) {
+		final Event event = beginEvent(name);
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			final T result = action.get();
+			failed = false;
+			return result;
+		} finally {
+			record(name, detail, System.nanoTime() - start);
+			commitEvent(event, detail, failed);
+		}
+	}
+
+	/**
+	 * Time an action without a result and record it as a phase.
+	 * @param name phase category
+	 * @param detail phase detail
+	 * @param action action to time
+	 */
+	public static void time(String name, String detail, Runnable action) {
+		final Event event = beginEvent(name);
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			action.run();
+			failed = false;
+		} finally {
+			record(name, detail, System.nanoTime() - start);
+			commitEvent(event, detail, failed);
+		}
+	}
+
+	/**
+	 * Return every phase recorded on this thread since the last drain and clear the buffer.
+	 * @return recorded phases in recording order
+	 */
+	public static List<Phase> drain() {
+		final List<Phase> phases = PHASES.get();
+		if (phases.isEmpty()) {
+			return List.of();
+		}
+		final List<Phase> drained = List.copyOf(phases);
+		phases.clear();
+		return drained;
+	}
+
+	/**
+	 * @return started Flight Recorder event for the phase, or null if the phase has no event type
+	 */
+	private static Event beginEvent(String name) {
+		final Event event = switch (name) {
+			case PHASE_JSON_PARSE -> new JsonParseEvent();
+			case PHASE_VALIDATION -> new ValidationEvent();
+			default -> null;
+		};
+		if (event != null) {
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Commit the event if a recording wants it; fields are only filled in that case,
+	 * so disabled events cost no more than the allocation the JIT usually removes.
+	 */
+	private static void commitEvent(Event event, String detail, boolean failed) {
+		if (event == null || !event.shouldCommit()) {
+			return;
+		}
+		if (event instanceof JsonParseEvent parse) {
+			parse.detail = detail;
+			parse.failed = failed;
+		} else if (event instanceof ValidationEvent validation) {
+			validation.detail = detail;
+			validation.failed = failed;
+		}
+		event.commit();
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.matschie.api.assertions;
+
+import static org.testng.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+public class CanonicalJsonTest {
+
+	private final CanonicalJson canonical = new CanonicalJson(Set.of("distance"), 4);
+
+	@Test
+	public void sortsKeysAndDropsIgnoredFieldsAtAnyDepth() {
+		final Object document = new JSONObject("{\"b\":1,\"a\":{\"distance\":3.2,\"z\":true,\"y\":null},\"distance\":9}");
+		assertEquals(canonical.toCanonicalString(document), "{\"a\":{\"y\":null,\"z\":true},\"b\":1}");
+	}
+
+	@Test
+	public void keepsArrayOrder() {
+		assertEquals(canonical.toCanonicalString(new JSONArray("[3,1,2]")), "[3,1,2]");
+	}
+
+	@Test
+	public void normalisesNumbers() {
+		final Object document = new JSONArray("[1.50, 2.000049, 2.00005, 0.00001, -0.0, 100]");
+		assertEquals(canonical.toCanonicalString(document), "[1.5,2,2.0001,0,0,100]");
+	}
+
+	@Test
+	public void equivalentDocumentsHashEqual() {
+		final byte[] first = canonical.hash(new JSONObject("{\"id\":\"1\",\"lat\":55.95,\"distance\":0.4}"));
+		final byte[] second = canonical.hash(new JSONObject("{\"lat\":55.9500,\"id\":\"1\",\"distance\":1.7}"));
+		final byte[] different = canonical.hash(new JSONObject("{\"lat\":55.95,\"id\":\"2\"}"));
+		assertEquals(first, second);
+		assertNotEquals(first, different);
+	}
+
+	@Test
+	public void hashIsSha256OfCanonicalText() throws Exception {
+		// Large enough to flush the hash buffer several times, with non-ASCII text
+		final JSONArray document = new JSONArray();
+		for (int i = 0; i < 2_000; i++) {
+			document.put(new JSONObject().put("id", i).put("name", "Caf\u00E9 \u00B7 " + i).put("distance", i * 0.1));
+		}
+		final byte[] expected = MessageDigest.getInstance("SHA-256")
+				.digest(canonical.toCanonicalString(document).getBytes(StandardCharsets.UTF_8));
+		assertEquals(canonical.hash(document), expected);
+	}
+
+	@Test
+	public void diffReportsPathsOfDifferences() {
+		final Object expected = new JSONObject("{\"shops\":[{\"id\":\"1\",\"postCode\":\"EH1 1AA\"}],\"count\":1,\"gone\":true}");
+		final Object actual = new JSONObject("{\"shops\":[{\"id\":\"1\",\"postCode\":\"EH1 1AB\"},{}],\"count\":1,\"new\":2}");
+		assertEquals(canonical.diff(expected, actual, 10), List.of(
+				"$.gone: missing (expected true)",
+				"$.new: unexpected 2",
+				"$.shops: expected 1 elements but was 2",
+				"$.shops[0].postCode: expected \"EH1 1AA\" but was \"EH1 1AB\""));
+		assertEquals(canonical.diff(expected, actual, 2).size(), 2);
+	}
+
+	@Test
+	public void diffIgnoresIgnoredFieldsAndNumberFormatting() {
+		assertTrue(canonical.diff(new JSONObject("{\"a\":1.10,\"distance\":1}"), new JSONObject("{\"a\":1.1,\"distance\":2}"), 10).isEmpty());
+	}
+
+}
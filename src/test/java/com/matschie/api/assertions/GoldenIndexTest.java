@@ -0,0 +1,95 @@
+package com.matschie.api.assertions;
+
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.json.JSONObject;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.matschie.api.assertions.GoldenIndex.Mode;
+
+public class GoldenIndexTest {
+
+	private static final String REQUEST = "GET /parcelshop?postcode=EH1";
+
+	private final CanonicalJson canonical = new CanonicalJson(Set.of("distance"), 6);
+	private Path directory;
+
+	@BeforeMethod
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("golden");
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteDirectory() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	public void verifiesAgainstRecordedBaseline() {
+		record(REQUEST, "{\"id\":\"1\",\"distance\":0.4}");
+		final GoldenIndex index = new GoldenIndex(directory, Mode.VERIFY, canonical);
+		index.check(REQUEST, new JSONObject("{\"distance\":2.5,\"id\":\"1\"}"));
+		index.check("GET /parcelshop?postcode=G1", new JSONObject("{}"));
+		assertEquals(index.toString(), "1 matched, 0 differed, 1 without baseline");
+	}
+
+	@Test
+	public void reportsDifferencesFromBaseline() {
+		record(REQUEST, "{\"id\":\"1\",\"name\":\"Shop\"}");
+		final GoldenIndex index = new GoldenIndex(directory, Mode.VERIFY, canonical);
+		final AssertionError error = expectThrows(AssertionError.class,
+				() -> index.check(REQUEST, new JSONObject("{\"id\":\"1\",\"name\":\"Store\"}")));
+		assertTrue(error.getMessage().contains(REQUEST), error.getMessage());
+		assertTrue(error.getMessage().contains("$.name: expected \"Shop\" but was \"Store\""), error.getMessage());
+		assertEquals(index.toString(), "0 matched, 1 differed, 0 without baseline");
+	}
+
+	@Test
+	public void recordingKeepsEarlierBaselines() {
+		record(REQUEST, "{\"id\":\"1\"}");
+		record("GET /parcelshop?postcode=G1", "{\"id\":\"2\"}");
+		final GoldenIndex index = new GoldenIndex(directory, Mode.VERIFY, canonical);
+		index.check(REQUEST, new JSONObject("{\"id\":\"1\"}"));
+		index.check("GET /parcelshop?postcode=G1", new JSONObject("{\"id\":\"2\"}"));
+		assertEquals(index.toString(), "2 matched, 0 differed, 0 without baseline");
+	}
+
+	@Test
+	public void missingDirectoryIsEmptyIndex() {
+		final GoldenIndex index = new GoldenIndex(directory.resolve("absent"), Mode.VERIFY, canonical);
+		index.check(REQUEST, new JSONObject("{}"));
+		assertEquals(index.toString(), "0 matched, 0 differed, 1 without baseline");
+	}
+
+	@Test
+	public void offModeChecksNothing() {
+		final GoldenIndex index = new GoldenIndex(directory, Mode.OFF, canonical);
+		index.check(REQUEST, new JSONObject("{}"));
+		index.save();
+		assertFalse(Files.exists(directory.resolve("index.bin")));
+	}
+
+	@Test
+	public void rejectsForeignIndexFile() throws IOException {
+		Files.writeString(directory.resolve("index.bin"), "not an index");
+		expectThrows(IllegalStateException.class, () -> new GoldenIndex(directory, Mode.VERIFY, canonical));
+	}
+
+	private void record(String request, String body) {
+		final GoldenIndex index = new GoldenIndex(directory, Mode.RECORD, canonical);
+		index.check(request, new JSONObject(body));
+		index.save();
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.matschie.api.assertions;
+
+import static org.testng.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.matschie.api.assertions.JsonAssertionEngine.Violation;
+
+public class JsonAssertionEngineTest {
+
+	private static final List<JsonAssertion> ASSERTIONS = List.of(
+			JsonAssertion.that("$[*].id").isPresent(),
+			JsonAssertion.that("$[*].distance").isBetween(0, 100),
+			JsonAssertion.that("$[*].distance").isSortedAscending());
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterClass(alwaysRun = true)
+	public void shutdownPool() {
+		pool.shutdown();
+	}
+
+	@DataProvider
+	public Object[][] chunkSizes() {
+		return new Object[][] {{1}, {2}, {3}, {4}, {100}};
+	}
+
+	@Test
+	public void violationOnChunkBoundaryAfterMissingValues() {
+		// With 11 elements and chunks of 3 the leaves start at 0, 2, 5 and 8: index 5 opens a leaf
+		final JSONArray shops = shops(0.0, 1.0, 2.0, null, null, 1.5, 3.0, 4.0, 5.0, 6.0, 7.0);
+		final List<Violation> sequential = JsonAssertionEngine.evaluate(shops, ASSERTIONS);
+		final List<Violation> parallel = JsonAssertionEngine.evaluateParallel(shops, ASSERTIONS, pool, 3);
+
+		assertEquals(new HashSet<>(parallel), new HashSet<>(sequential));
+		assertEquals(parallel.size(), sequential.size());
+		assertTrue(parallel.stream().anyMatch(violation -> violation.index() == 5
+				&& violation.message().equals("$[5].distance ('1.5') is less than the previous value ('2.0')")), parallel.toString());
+	}
+
+	@Test(dataProvider = "chunkSizes")
+	public void parallelMatchesSequentialForEveryViolationPosition(int chunkSize) {
+		for (int length : new int[] {7, 11, 16}) {
+			for (int position = 1; position < length; position++) {
+				for (int missing = 0; missing <= Math.min(2, position - 1); missing++) {
+					final Double[] distances = new Double[length];
+					for (int i = 0; i < length; i++) {
+						distances[i] = (double) i;
+					}
+					// Out of order at position, after a run of missing values
+					distances[position] = position - 1.5;
+					for (int i = position - missing; i < position; i++) {
+						distances[i] = null;
+					}
+					assertEquivalent(shops(distances), chunkSize, length + " elements, violation at " + position + " after " + missing + " missing");
+				}
+			}
+		}
+	}
+
+	@Test(dataProvider = "chunkSizes")
+	public void parallelMatchesSequentialOnRandomData(int chunkSize) {
+		final Random random = new Random(7);
+		for (int run = 0; run < 50; run++) {
+			final Double[] distances = new Double[1 + random.nextInt(40)];
+			double distance = 0;
+			for (int i = 0; i < distances.length; i++) {
+				distance += random.nextInt(4) == 0 ? -random.nextDouble() : random.nextDouble();
+				distances[i] = random.nextInt(5) == 0 ? null : distance;
+			}
+			assertEquivalent(shops(distances), chunkSize, "run " + run);
+		}
+	}
+
+	@Test
+	public void scalarAssertionsAndNonArraysAreReportedOnce() {
+		final JSONObject document = new JSONObject().put("count", 3).put("parcelShops", "none");
+		final List<JsonAssertion> assertions = List.of(
+				JsonAssertion.that("$.count").isBetween(0, 2),
+				JsonAssertion.that("$.parcelShops[*].id").isPresent());
+
+		final List<Violation> sequential = JsonAssertionEngine.evaluate(document, assertions);
+		assertEquals(JsonAssertionEngine.evaluateParallel(document, assertions, pool, 2), sequential);
+		assertEquals(sequential.size(), 2);
+	}
+
+	private void assertEquivalent(JSONArray shops, int chunkSize, String description) {
+		final List<Violation> sequential = JsonAssertionEngine.evaluate(shops, ASSERTIONS);
+		final List<Violation> parallel = JsonAssertionEngine.evaluateParallel(shops, ASSERTIONS, pool, chunkSize);
+		assertEquals(new HashSet<>(parallel), new HashSet<>(sequential), description + ", chunk " + chunkSize);
+		assertEquals(parallel.size(), sequential.size(), description + ", chunk " + chunkSize);
+	}
+
+	private static JSONArray shops(Double... distances) {
+		final JSONArray shops = new JSONArray();
+		for (int i = 0; i < distances.length; i++) {
+			final JSONObject shop = new JSONObject().put("id", "PS" + i);
+			if (distances[i] != null) {
+				shop.put("distance", distances[i]);
+			}
+			shops.put(shop);
+		}
+		return shops;
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.matschie.api.assertions;
+
+import static org.testng.Assert.*;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+public class JsonPathTest {
+
+	private static final JSONObject DOCUMENT = new JSONObject(
+			"{\"parcelShops\":[{\"id\":\"A\",\"address\":{\"postCode\":\"EH1 1AA\",\"lines\":[\"1 High St\"]}},"
+			+ "{\"id\":\"B\",\"address\":null},{\"shop id\":\"C\"}],\"count\":3}");
+
+	@Test
+	public void resolvesFieldsIndexesAndQuotedNames() {
+		assertEquals(JsonPath.compile("$.count").resolvePrefix(DOCUMENT), 3);
+		assertEquals(JsonPath.compile("$.parcelShops[0].address.lines[0]").resolvePrefix(DOCUMENT), "1 High St");
+		assertEquals(JsonPath.compile("$['parcelShops'][2]['shop id']").resolvePrefix(DOCUMENT), "C");
+		assertSame(JsonPath.compile("$").resolvePrefix(DOCUMENT), DOCUMENT);
+	}
+
+	@Test
+	public void missingOrNullValuesResolveToNull() {
+		assertNull(JsonPath.compile("$.absent.field").resolvePrefix(DOCUMENT));
+		assertNull(JsonPath.compile("$.parcelShops[1].address.postCode").resolvePrefix(DOCUMENT));
+		assertNull(JsonPath.compile("$.parcelShops[9]").resolvePrefix(DOCUMENT));
+		assertNull(JsonPath.compile("$.count[0]").resolvePrefix(DOCUMENT));
+	}
+
+	@Test
+	public void wildcardSplitsIntoArrayAndElementAccessors() {
+		final JsonPath path = JsonPath.compile("$.parcelShops[*].address.postCode");
+		assertTrue(path.isWildcard());
+		assertEquals(path.getIterationKey(), "$.parcelShops[*]");
+		assertEquals(path.atIndex(4), "$.parcelShops[4].address.postCode");
+		final JSONArray shops = (JSONArray) path.resolvePrefix(DOCUMENT);
+		assertEquals(shops.length(), 3);
+		assertEquals(path.resolveElement(shops.get(0)), "EH1 1AA");
+		assertNull(path.resolveElement(shops.get(1)));
+	}
+
+	@Test
+	public void pathWithoutWildcardIsItsOwnIterationKey() {
+		final JsonPath path = JsonPath.compile("$.count");
+		assertFalse(path.isWildcard());
+		assertEquals(path.getIterationKey(), "$.count");
+		assertEquals(path.atIndex(2), "$.count");
+	}
+
+	@Test
+	public void compiledPathsAreCached() {
+		assertSame(JsonPath.compile("$[*].id"), JsonPath.compile("$[*].id"));
+	}
+
+	@Test
+	public void rejectsUnsupportedExpressions() {
+		for (String expression : new String[] { "parcelShops", "$..id", "$[*][*]", "$[0", "$[?(@.id)]", "$ .id" }) {
+			expectThrows(IllegalArgumentException.class, () -> JsonPath.compile(expression));
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.matschie.api.rest.assured.api.client;
+
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.conn.DefaultHttpRoutePlanner;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.protocol.BasicHttpContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+
+@SuppressWarnings("deprecation")
+public class ConnectionPoolTest {
+
+	private HttpServer server;
+	private URI base;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ok", exchange -> {
+			final byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		base = URI.create("http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void routeMatchesTheRequestRoutePlanner() throws Exception {
+		final ConnectionPool pool = new ConnectionPool("test", 4);
+		final DefaultHttpRoutePlanner planner = new DefaultHttpRoutePlanner(SchemeRegistryFactory.createDefault());
+		for (String target : new String[] { "https://api.example.com", "https://api.example.com:8443", "http://api.example.com:8080" }) {
+			final HttpHost host = new HttpHost(URI.create(target).getHost(), URI.create(target).getPort(), URI.create(target).getScheme());
+			assertEquals(pool.route(URI.create(target)), planner.determineRoute(host, new HttpGet(target), new BasicHttpContext()), target);
+		}
+		assertTrue(pool.route(URI.create("https://api.example.com")).isSecure());
+		pool.shutdown();
+	}
+
+	@Test
+	public void requestLeasesPreOpenedConnection() throws IOException {
+		final ConnectionPool pool = new ConnectionPool("test", 4);
+		try {
+			assertEquals(pool.preOpen(base, 2, Duration.ofSeconds(5)), 2);
+			assertEquals(pool.stats().getAvailable(), 2);
+
+			final RestAssuredConfig config = RestAssuredConfig.config().httpClient(pool.apply(HttpClientConfig.httpClientConfig()));
+			for (int i = 0; i < 3; i++) {
+				// Reading the body releases the connection, as the suite's filters do
+				assertEquals(RestAssured.given().config(config).get(base.resolve("/ok")).asString(), "{}");
+			}
+			// A request on another route would have opened a third connection
+			assertEquals(pool.stats().getAvailable(), 2);
+			assertEquals(pool.stats().getLeased(), 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.matschie.general.utils;
+
+import static org.testng.Assert.*;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import com.matschie.general.utils.CircuitBreaker.OpenException;
+import com.matschie.general.utils.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+
+	private static final Duration LONG = Duration.ofHours(1);
+
+	@Test
+	public void staysClosedUntilMinimumCallsSeen() {
+		final CircuitBreaker breaker = new CircuitBreaker("test", 50, 10, 4, LONG, 1);
+		for (int i = 0; i < 3; i++) {
+			call(breaker, false);
+		}
+		assertEquals(breaker.getState(), State.CLOSED);
+		call(breaker, false);
+		assertEquals(breaker.getState(), State.OPEN);
+	}
+
+	@Test
+	public void opensAtFailureRateOfSlidingWindow() {
+		final CircuitBreaker breaker = new CircuitBreaker("test", 50, 4, 4, LONG, 1);
+		call(breaker, true);
+		call(breaker, true);
+		call(breaker, true);
+		call(breaker, false);
+		assertEquals(breaker.getState(), State.CLOSED);
+		// The first success has left the window: two of the last four calls failed
+		call(breaker, false);
+		assertEquals(breaker.getState(), State.OPEN);
+	}
+
+	@Test
+	public void rejectsCallsWhileOpen() {
+		final CircuitBreaker breaker = new CircuitBreaker("backend", 100, 1, 1, LONG, 1);
+		call(breaker, false);
+		final OpenException rejected = expectThrows(OpenException.class, breaker::acquirePermission);
+		assertTrue(rejected.getMessage().contains("'backend' is OPEN"), rejected.getMessage());
+		assertTrue(rejected.getMessage().contains("failure"), rejected.getMessage());
+	}
+
+	@Test
+	public void closesAfterSuccessfulProbes() {
+		final CircuitBreaker breaker = new CircuitBreaker("test", 100, 1, 1, Duration.ZERO, 2);
+		call(breaker, false);
+		breaker.acquirePermission();
+		assertEquals(breaker.getState(), State.HALF_OPEN);
+		breaker.acquirePermission();
+		// Both probes are in flight
+		expectThrows(OpenException.class, breaker::acquirePermission);
+		breaker.onSuccess();
+		assertEquals(breaker.getState(), State.HALF_OPEN);
+		breaker.onSuccess();
+		assertEquals(breaker.getState(), State.CLOSED);
+	}
+
+	@Test
+	public void failedProbeOpensAgain() {
+		final CircuitBreaker breaker = new CircuitBreaker("test", 100, 1, 1, Duration.ZERO, 2);
+		call(breaker, false);
+		breaker.acquirePermission();
+		breaker.onFailure("probe");
+		assertEquals(breaker.getState(), State.OPEN);
+	}
+
+	@Test
+	public void closingStartsAFreshWindow() {
+		final CircuitBreaker breaker = new CircuitBreaker("test", 50, 4, 2, Duration.ZERO, 1);
+		call(breaker, false);
+		call(breaker, false);
+		call(breaker, true);
+		assertEquals(breaker.getState(), State.CLOSED);
+		// One failure after closing is below the minimum number of calls
+		call(breaker, false);
+		assertEquals(breaker.getState(), State.CLOSED);
+	}
+
+	/**
+	 * @param succeed false to report a failure
+	 */
+	private static void call(CircuitBreaker breaker, boolean succeed) {
+		breaker.acquirePermission();
+		if (succeed) {
+			breaker.onSuccess();
+		} else {
+			breaker.onFailure("failure");
+		}
+	}
+
+}
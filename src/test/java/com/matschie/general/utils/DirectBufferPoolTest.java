@@ -0,0 +1,69 @@
+package com.matschie.general.utils;
+
+import static org.testng.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.testng.annotations.Test;
+
+public class DirectBufferPoolTest {
+
+	@Test
+	public void roundsMaximumUpToPowerOfTwo() {
+		assertEquals(new DirectBufferPool(5_000_000, 0).maxBufferBytes(), 8 * 1024 * 1024);
+		assertEquals(new DirectBufferPool(1, 0).maxBufferBytes(), 4096);
+	}
+
+	@Test
+	public void acquiredBufferIsDirectAndLimitedToCapacity() {
+		final ByteBuffer buffer = new DirectBufferPool(1 << 20, 1 << 20).acquire(5_000);
+		assertTrue(buffer.isDirect());
+		assertEquals(buffer.capacity(), 8192);
+		assertEquals(buffer.position(), 0);
+		assertEquals(buffer.limit(), 5_000);
+	}
+
+	@Test
+	public void releasedBufferIsReusedForSameSizeClass() {
+		final DirectBufferPool pool = new DirectBufferPool(1 << 20, 1 << 20);
+		final ByteBuffer first = pool.acquire(5_000);
+		first.put((byte) 1);
+		pool.release(first);
+		final ByteBuffer second = pool.acquire(6_000);
+		assertSame(second, first);
+		assertEquals(second.position(), 0);
+		assertEquals(second.limit(), 6_000);
+		// A different size class allocates
+		assertNotSame(pool.acquire(100), first);
+		assertEquals(pool.toString(), "2 allocated, 1 reused, 0 KiB idle");
+	}
+
+	@Test
+	public void dropsBuffersBeyondIdleBound() {
+		final DirectBufferPool pool = new DirectBufferPool(1 << 20, 8192);
+		final ByteBuffer first = pool.acquire(8192);
+		final ByteBuffer second = pool.acquire(8192);
+		pool.release(first);
+		pool.release(second);
+		assertEquals(pool.toString(), "2 allocated, 0 reused, 8 KiB idle");
+		assertSame(pool.acquire(8192), first);
+		assertNotSame(pool.acquire(8192), second);
+	}
+
+	@Test
+	public void rejectsCapacityOutOfRange() {
+		final DirectBufferPool pool = new DirectBufferPool(4096, 0);
+		expectThrows(IllegalArgumentException.class, () -> pool.acquire(4097));
+		expectThrows(IllegalArgumentException.class, () -> pool.acquire(-1));
+		expectThrows(IllegalArgumentException.class, () -> new DirectBufferPool(0, 0));
+	}
+
+	@Test
+	public void rejectsForeignBuffers() {
+		final DirectBufferPool pool = new DirectBufferPool(8192, 1 << 20);
+		expectThrows(IllegalArgumentException.class, () -> pool.release(ByteBuffer.allocate(4096)));
+		expectThrows(IllegalArgumentException.class, () -> pool.release(ByteBuffer.allocateDirect(5000)));
+		expectThrows(IllegalArgumentException.class, () -> pool.release(ByteBuffer.allocateDirect(16384)));
+	}
+
+}
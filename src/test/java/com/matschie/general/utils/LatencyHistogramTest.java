@@ -0,0 +1,94 @@
+package com.matschie.general.utils;
+
+import static org.testng.Assert.*;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void emptyHistogramReportsZero() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(histogram.count(), 0);
+		assertEquals(histogram.percentile(99), Duration.ZERO);
+		assertEquals(histogram.mean(), Duration.ZERO);
+		assertEquals(histogram.max(), Duration.ZERO);
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long micros = 1; micros <= 10; micros++) {
+			histogram.record(micros * 1_000);
+		}
+		assertEquals(histogram.percentile(50), Duration.ofNanos(5_000));
+		assertEquals(histogram.percentile(100), Duration.ofNanos(10_000));
+		assertEquals(histogram.mean(), Duration.ofNanos(5_500));
+	}
+
+	@Test
+	public void percentilesAreWithinBucketPrecision() {
+		final long[] micros = new Random(7).longs(100_000, 1, 60_000_000).sorted().toArray();
+		final LatencyHistogram histogram = new LatencyHistogram();
+		LongStream.of(micros).forEach(value -> histogram.record(value * 1_000));
+		for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+			final long exact = micros[(int) Math.ceil(micros.length * percentile / 100) - 1];
+			final long reported = histogram.percentile(percentile).toNanos() / 1_000;
+			assertTrue(reported >= exact && reported <= exact * 1.0625, "p" + percentile + ": " + reported + " vs " + exact);
+		}
+		assertEquals(histogram.percentile(100).toNanos() / 1_000, micros[micros.length - 1]);
+	}
+
+	@Test
+	public void percentileNeverExceedsMax() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(Duration.ofMillis(1000));
+		assertEquals(histogram.percentile(99), Duration.ofMillis(1000));
+	}
+
+	@Test
+	public void snapshotAndResetMovesEverything() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(Duration.ofMillis(5));
+		histogram.record(Duration.ofMillis(7));
+		final LatencyHistogram snapshot = histogram.snapshotAndReset();
+		assertEquals(snapshot.count(), 2);
+		assertEquals(snapshot.max(), Duration.ofMillis(7));
+		assertEquals(snapshot.mean(), Duration.ofMillis(6));
+		assertEquals(histogram.count(), 0);
+		assertEquals(histogram.max(), Duration.ZERO);
+	}
+
+	@Test
+	public void addMergesCountsAndExtremes() {
+		final LatencyHistogram first = new LatencyHistogram();
+		final LatencyHistogram second = new LatencyHistogram();
+		first.record(Duration.ofMillis(2));
+		second.record(Duration.ofMillis(4));
+		second.record(Duration.ofMillis(9));
+		first.add(second);
+		assertEquals(first.count(), 3);
+		assertEquals(first.max(), Duration.ofMillis(9));
+		assertEquals(first.mean(), Duration.ofMillis(5));
+		assertEquals(first.percentile(100), Duration.ofMillis(9));
+	}
+
+	@Test
+	public void jsonRoundTripKeepsEveryBucket() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		new Random(11).longs(1_000, 1, 5_000_000).forEach(micros -> histogram.record(micros * 1_000));
+		final LatencyHistogram copy = LatencyHistogram.fromJson(new JSONObject(histogram.toJson().toString()));
+		assertEquals(copy.count(), histogram.count());
+		assertEquals(copy.mean(), histogram.mean());
+		assertEquals(copy.max(), histogram.max());
+		for (double percentile : new double[] { 10, 50, 99 }) {
+			assertEquals(copy.percentile(percentile), histogram.percentile(percentile));
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.matschie.general.utils;
+
+import static org.testng.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class PropertiesHandlersTest {
+
+	private static final String KEY = "test.properties-handlers.value";
+
+	@AfterMethod(alwaysRun = true)
+	public void clearProperty() {
+		System.clearProperty(KEY);
+		PropertiesHandlers.reload();
+	}
+
+	@Test
+	public void mapsKeysToEnvironmentVariableNames() {
+		assertEquals(PropertiesHandlers.toEnvName("http.read-timeout"), "HTTP_READ_TIMEOUT");
+		assertEquals(PropertiesHandlers.toEnvName("parcelshop.base.uri"), "PARCELSHOP_BASE_URI");
+		assertEquals(PropertiesHandlers.toEnvName("http.dns.ttl.api.example.com"), "HTTP_DNS_TTL_API_EXAMPLE_COM");
+	}
+
+	@Test
+	public void parsesDurationSuffixes() {
+		assertEquals(PropertiesHandlers.parseDuration("250ms"), Duration.ofMillis(250));
+		assertEquals(PropertiesHandlers.parseDuration("30s"), Duration.ofSeconds(30));
+		assertEquals(PropertiesHandlers.parseDuration("5m"), Duration.ofMinutes(5));
+		assertEquals(PropertiesHandlers.parseDuration("1h"), Duration.ofHours(1));
+		assertEquals(PropertiesHandlers.parseDuration("1500"), Duration.ofMillis(1500));
+		assertEquals(PropertiesHandlers.parseDuration("PT30S"), Duration.ofSeconds(30));
+		assertEquals(PropertiesHandlers.parseDuration("pt1m30s"), Duration.ofSeconds(90));
+		assertEquals(PropertiesHandlers.parseDuration(" 10 S "), Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void parsesBooleanSpellings() {
+		for (String value : new String[] {"true", "YES", "on", "1"}) {
+			assertTrue(PropertiesHandlers.parseBoolean(value), value);
+		}
+		for (String value : new String[] {"false", "No", "OFF", "0"}) {
+			assertFalse(PropertiesHandlers.parseBoolean(value), value);
+		}
+	}
+
+	@Test
+	public void rejectsInvalidValues() {
+		expectThrows(IllegalArgumentException.class, () -> PropertiesHandlers.parseDuration("5d"));
+		expectThrows(IllegalArgumentException.class, () -> PropertiesHandlers.parseDuration("soon"));
+		expectThrows(IllegalArgumentException.class, () -> PropertiesHandlers.parseBoolean("maybe"));
+
+		System.setProperty(KEY, "abc");
+		PropertiesHandlers.reload();
+		final IllegalArgumentException error = expectThrows(IllegalArgumentException.class,
+				() -> PropertiesHandlers.configInt(KEY, 1));
+		assertTrue(error.getMessage().contains(KEY), error.getMessage());
+		expectThrows(IllegalArgumentException.class, () -> PropertiesHandlers.configDuration(KEY, Duration.ZERO));
+		expectThrows(IllegalArgumentException.class, () -> PropertiesHandlers.configBoolean(KEY, false));
+	}
+
+	@Test
+	public void blankOrMissingValuesFallBackToDefaults() {
+		assertEquals(PropertiesHandlers.configInt(KEY, 7), 7);
+		System.setProperty(KEY, "  ");
+		PropertiesHandlers.reload();
+		assertEquals(PropertiesHandlers.configInt(KEY, 7), 7);
+		assertEquals(PropertiesHandlers.configDuration(KEY, Duration.ofSeconds(3)), Duration.ofSeconds(3));
+	}
+
+	@Test
+	public void systemPropertiesOverrideFileValues() {
+		System.setProperty("parcelshop.base.uri", "http://localhost:8080");
+		try {
+			PropertiesHandlers.reload();
+			assertEquals(PropertiesHandlers.config("parcelshop.base.uri"), "http://localhost:8080");
+		} finally {
+			System.clearProperty("parcelshop.base.uri");
+			PropertiesHandlers.reload();
+		}
+		assertNotEquals(PropertiesHandlers.config("parcelshop.base.uri"), "http://localhost:8080");
+	}
+
+	@Test
+	public void valuesAreCachedUntilReload() {
+		System.setProperty(KEY, "1");
+		PropertiesHandlers.reload();
+		assertEquals(PropertiesHandlers.configInt(KEY, 0), 1);
+		assertEquals(PropertiesHandlers.config(KEY), "1");
+
+		System.setProperty(KEY, "2");
+		assertEquals(PropertiesHandlers.configInt(KEY, 0), 1);
+		assertEquals(PropertiesHandlers.config(KEY), "1");
+
+		PropertiesHandlers.reload();
+		assertEquals(PropertiesHandlers.configInt(KEY, 0), 2);
+		assertEquals(PropertiesHandlers.config(KEY), "2");
+	}
+
+	@Test
+	public void reloadNotifiesListeners() {
+		final AtomicInteger reloads = new AtomicInteger();
+		PropertiesHandlers.onReload(reloads::incrementAndGet);
+
+		PropertiesHandlers.reload();
+		PropertiesHandlers.reload();
+		assertEquals(reloads.get(), 2);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.matschie.parcelshop.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntSupplier;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.matschie.api.assertions.JsonAssertion;
+import com.matschie.api.assertions.JsonAssertionEngine;
+import com.matschie.parcelshop.services.ParcelShopService;
+
+/**
+ * Measures single-threaded versus fork-join validation of a synthetic nationwide result set
+ * with the standard parcelshop sanity checks, at increasing pool sizes.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.matschie.parcelshop.benchmark.ParallelValidationBenchmark \
+ *     -Dexec.args="50000 1024"
+ * </pre>
+ * Arguments: number of shops (default 50000), chunk size (default 1024).
+ */
+public class ParallelValidationBenchmark {
+
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 10;
+
+	public static void main(String[] args) {
+		final int shops = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		final int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : 1_024;
+		final JSONArray parcelShops = generate(shops);
+		final List<JsonAssertion> assertions = ParcelShopService.sanityAssertions("EH");
+
+		final double sequential = measure(() -> JsonAssertionEngine.evaluate(parcelShops, assertions).size());
+		System.out.printf("%,d shops, %d checks, chunk %d%n", shops, assertions.size(), chunkSize);
+		System.out.printf("%-12s %10.2f ms  %6.2fx%n", "sequential", sequential, 1.0);
+
+		final int cores = Runtime.getRuntime().availableProcessors();
+		for (int parallelism = 1; parallelism <= cores; parallelism = parallelism == cores ? cores + 1 : Math.min(cores, parallelism * 2)) {
+			final ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				final double parallel = measure(
+						() -> JsonAssertionEngine.evaluateParallel(parcelShops, assertions, pool, chunkSize).size());
+				System.out.printf("%-12s %10.2f ms  %6.2fx%n", "fork-join " + parallelism, parallel, sequential / parallel);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * @return mean wall time in milliseconds over the measured rounds
+	 */
+	private static double measure(IntSupplier validation) {
+		int sink = 0;
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			sink += validation.getAsInt();
+		}
+		final long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			sink += validation.getAsInt();
+		}
+		final double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+		if (sink < 0) {
+			System.out.println(sink);
+		}
+		return millis;
+	}
+
+	/**
+	 * Build shops in EH with UK coordinates, increasing distance and regular opening hours;
+	 * roughly one in a thousand carries a deliberate violation.
+	 */
+	private static JSONArray generate(int count) {
+		final Random random = new Random(42);
+		final JSONArray parcelShops = new JSONArray();
+		for (int i = 0; i < count; i++) {
+			final boolean broken = random.nextInt(1_000) == 0;
+			final JSONArray hours = new JSONArray();
+			for (String day : new String[] {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"}) {
+				hours.put(new JSONObject()
+						.put("dayOfWeek", day)
+						.put("openTime", broken ? "18:00" : "08:00")
+						.put("closeTime", "17:30"));
+			}
+			parcelShops.put(new JSONObject()
+					.put("parcelShopId", "PS" + i)
+					.put("latitude", 55.9 + random.nextDouble() / 10)
+					.put("longitude", -3.2 + random.nextDouble() / 10)
+					.put("distance", broken ? 0.0 : i / 100.0)
+					.put("address", new JSONObject().put("postCode", (broken ? "G" : "EH") + (1 + random.nextInt(50)) + " 1AA"))
+					.put("businessHours", hours));
+		}
+		return parcelShops;
+	}
+
+}
@@ -1,5 +1,16 @@
 package com.matschie.parcelshop.cucumber.runner;
 
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.util.logging.Logger;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+
+import com.matschie.api.rest.assured.api.client.ConnectionWarmUp;
+import com.matschie.parcelshop.services.ParcelShopRequestTemplate;
+import com.matschie.parcelshop.sharding.ShardPlanner;
+
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
 
@@ -7,13 +18,43 @@ import io.cucumber.testng.CucumberOptions;
 		          features = {"src/test/java/com/matschie/parcelshop/features/ParcelShop.feature"},
 		          glue = {"com.matschie.parcelshop.step.defs"},
 		          dryRun = false,
-		        //    tags = "@smoke and @postcode",
+		          // Opt-in scenarios (live load, fuzzing, full sweeps, reference data) run only when selected
+		          // with -Dcucumber.filter.tags, which replaces this expression
+		          tags = "not @geo and not @sweep and not @performance and not @fuzz",
 		          plugin = {
 		        		  "pretty",
 		        		  "io.qameta.allure.cucumber6jvm.AllureCucumber6Jvm",
-		        		  "com.matschie.parcelshop.reporting.ExtentCucumberAdapter"
+		        		  "com.matschie.parcelshop.reporting.ExtentCucumberAdapter",
+		        		  "com.matschie.parcelshop.sharding.ScenarioTimingsPlugin"
 		          }
 		        )
 public class ParcelShopCucumberRunner extends AbstractTestNGCucumberTests {
 
+	private static final Logger LOGGER = Logger.getLogger(ParcelShopCucumberRunner.class.getName());
+
+	/**
+	 * Resolve DNS and open pooled connections to the parcelshop API before the first scenario
+	 * ({@code http.warmup.enabled}, default true). A failure is logged; the scenarios report the actual problem.
+	 */
+	@BeforeClass(alwaysRun = true)
+	public void warmUpConnections() {
+		if (!configBoolean("http.warmup.enabled", true)) {
+			return;
+		}
+		try {
+			ConnectionWarmUp.warmUp(ParcelShopRequestTemplate.get());
+		} catch (RuntimeException e) {
+			LOGGER.warning("Connection warm-up skipped: " + e);
+		}
+	}
+
+	/**
+	 * Run only this JVM's slice of the scenarios when {@code -Dshard=i/N} is set.
+	 */
+	@Override
+	@DataProvider
+	public Object[][] scenarios() {
+		return ShardPlanner.select(super.scenarios());
+	}
+
 }
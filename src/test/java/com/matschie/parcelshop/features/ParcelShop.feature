@@ -19,3 +19,39 @@ Feature: Enterprise ParcelShop API validation
     And query parameter 'count' as '5'
     Then I receive a response with parcelshops whose address.postCode field starts with 'EH'
     And the size of the response array is '5'
+
+  @sweep @postcode
+  Scenario: Validate parcelshop postcodes for every UK postcode area
+    Given I have the enterprise-parcelshop-api
+    When I sweep every postcode area in 'postcode-areas' with query parameter 'count' as '5'
+    Then every postcode area returns parcelshops whose address.postCode field starts with the area
+
+  @geo @postcode
+  Scenario: Validate parcelshops are the nearest to the Edinburgh centroid
+    Given I have the enterprise-parcelshop-api
+    When I submit a request with query parameter 'city' as 'Edinburgh'
+    And query parameter 'count' as '10'
+    Then the parcelshops are the nearest reference parcelshops to 55.9533, -3.1883 within 0.1
+
+  @regression @hours
+  Scenario: Validate opening hours of Edinburgh parcelshops
+    Given I have the enterprise-parcelshop-api
+    When I submit a request with query parameter 'city' as 'Edinburgh'
+    And query parameter 'count' as '20'
+    Then every parcelshop passes the sanity checks for postcode prefix 'EH'
+    And at least 1 parcelshop is open on 'Saturday' after '12:00'
+
+  @performance
+  Scenario: Validate parcelshop API latency under concurrent load
+    Given I have the enterprise-parcelshop-api
+    When I submit a request with query parameter 'city' as 'Edinburgh'
+    And query parameter 'count' as '10'
+    Then the response time is below 300 ms
+    When I send 500 requests with concurrency 20
+    Then p95 latency is below 400 ms and error rate below 1%
+
+  @fuzz
+  Scenario: Validate the parcelshop contract for generated queries
+    Given I have the enterprise-parcelshop-api
+    When I fuzz 1000 generated queries with concurrency 16
+    Then every generated query satisfies the parcelshop contract
@@ -0,0 +1,211 @@
+package com.matschie.parcelshop.fuzz;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+import static com.matschie.general.utils.TimingRecorder.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import com.matschie.api.rest.assured.api.client.HttpLatency;
+import com.matschie.api.rest.assured.api.client.PooledBody;
+import com.matschie.general.utils.CircuitBreaker;
+import com.matschie.parcelshop.services.ParcelShopQuery;
+import com.matschie.parcelshop.services.ParcelShopService;
+
+import io.restassured.builder.RequestSpecBuilder;
+
+/**
+ * Property-based contract test: sends generated queries ({@link QueryGenerator}) in parallel, checks each
+ * response with {@link ParcelShopService#validateContract}, and shrinks every failing query to a minimal
+ * reproduction by greedily retrying simpler variants that still fail. Case {@code i} is generated from
+ * {@code seed + i}, so a reported seed reproduces the run.
+ * <pre>
+ * fuzz.shrink.max.attempts=50    # queries sent while shrinking one failure
+ * fuzz.max.shrunk.failures=10    # failing queries shrunk per run; the rest are only counted
+ * </pre>
+ */
+public final class ContractFuzzer {
+
+	private static final Logger LOGGER = Logger.getLogger(ContractFuzzer.class.getName());
+
+	private static final int DEFAULT_SHRINK_MAX_ATTEMPTS = 50;
+	private static final int DEFAULT_MAX_SHRUNK_FAILURES = 10;
+
+	/**
+	 * A query that broke the contract.
+	 * @param original generated query
+	 * @param minimal smallest query found that still fails
+	 * @param message failure of the minimal query
+	 */
+	public record Failure(ParcelShopQuery original, ParcelShopQuery minimal, String message) {
+
+		@Override
+		public String toString() {
+			return describe(minimal) + " -> " + message.lines().findFirst().orElse("") + "  (generated as " + describe(original) + ")";
+		}
+	}
+
+	/**
+	 * Outcome of a run.
+	 * @param seed seed the cases were generated from
+	 * @param cases number of queries sent (excluding shrinking)
+	 * @param failures failing queries, one per distinct minimal reproduction
+	 * @param failedCases number of generated queries that failed
+	 * @param elapsed wall time of the generated queries (excluding shrinking)
+	 * @param latency latency of the generated queries
+	 */
+	public record Report(long seed, int cases, List<Failure> failures, int failedCases, Duration elapsed, HttpLatency latency) {
+
+		public double throughput() {
+			return elapsed.isZero() ? 0 : cases * 1_000.0 / elapsed.toMillis();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d queries (seed %d) in %d ms, %.1f queries/s, %d failed; %s",
+					cases, seed, elapsed.toMillis(), throughput(), failedCases, latency);
+		}
+	}
+
+	private final ParcelShopService service;
+	private final Supplier<RequestSpecBuilder> requestFactory;
+
+	/**
+	 * @param service service the queries are sent and validated with
+	 * @param requestFactory supplies a fresh base request (URI, headers) per query
+	 */
+	public ContractFuzzer(ParcelShopService service, Supplier<RequestSpecBuilder> requestFactory) {
+		this.service = service;
+		this.requestFactory = requestFactory;
+	}
+
+	/**
+	 * @param cases number of queries to generate
+	 * @param concurrency number of parallel requests
+	 * @param seed seed of the first case
+	 * @return failures, shrunk, and throughput
+	 */
+	public Report run(int cases, int concurrency, long seed) {
+		LOGGER.info(() -> "Fuzzing " + cases + " queries with seed " + seed + " (-Dfuzz.seed=" + seed + " to reproduce)");
+		final HttpLatency latency = new HttpLatency();
+		final Queue<Map.Entry<ParcelShopQuery, Throwable>> failed = new ConcurrentLinkedQueue<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+		final long start = System.nanoTime();
+		try {
+			for (int i = 0; i < cases; i++) {
+				final ParcelShopQuery query = QueryGenerator.generate(new Random(seed + i));
+				executor.execute(() -> {
+					final long callStart = System.nanoTime();
+					final Optional<Throwable> failure = check(query);
+					latency.record(System.nanoTime() - callStart, failure.isPresent());
+					failure.ifPresent(message -> failed.add(Map.entry(query, message)));
+				});
+			}
+			executor.shutdown();
+			if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+				throw new IllegalStateException("Fuzz run did not finish within 1 hour");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Fuzz run interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		// Many generated queries usually fail for the same reason; keep one per minimal reproduction
+		final int maxShrunk = configInt("fuzz.max.shrunk.failures", DEFAULT_MAX_SHRUNK_FAILURES);
+		final Map<ParcelShopQuery, Failure> distinct = new LinkedHashMap<>();
+		int shrunkFailures = 0;
+		for (Map.Entry<ParcelShopQuery, Throwable> failure : failed) {
+			if (shrunkFailures++ >= maxShrunk) {
+				break;
+			}
+			// A rejected call says nothing about the input; report it as generated
+			final Failure shrunk = failure.getValue() instanceof CircuitBreaker.OpenException
+					? new Failure(failure.getKey(), failure.getKey(), message(failure.getValue()))
+					: shrink(failure.getKey(), failure.getValue());
+			distinct.putIfAbsent(shrunk.minimal(), shrunk);
+		}
+		final Report report = new Report(seed, cases, new ArrayList<>(distinct.values()), failed.size(), elapsed, latency);
+		LOGGER.info(() -> "Fuzz: " + report);
+		return report;
+	}
+
+	/**
+	 * @return the contract violation or exception for the query, empty if the contract holds
+	 */
+	private Optional<Throwable> check(ParcelShopQuery query) {
+		try {
+			service.validateContract(service.getParcelShops(query.applyTo(requestFactory.get())),
+					QueryGenerator.requestedCount(query));
+			return Optional.empty();
+		} catch (AssertionError | RuntimeException e) {
+			return Optional.of(e);
+		} finally {
+			// Worker threads outlive a single step; drop their timing phases and pooled bodies
+			drain();
+			PooledBody.releaseAll();
+		}
+	}
+
+	/**
+	 * Greedy shrinking: take the first simpler candidate that still fails, and repeat from it until no
+	 * candidate fails or the attempt budget is spent.
+	 */
+	private Failure shrink(ParcelShopQuery original, Throwable failure) {
+		final int maxAttempts = configInt("fuzz.shrink.max.attempts", DEFAULT_SHRINK_MAX_ATTEMPTS);
+		ParcelShopQuery minimal = original;
+		Throwable minimalFailure = failure;
+		int attempts = 0;
+		boolean progress = true;
+		while (progress && attempts < maxAttempts) {
+			progress = false;
+			for (ParcelShopQuery candidate : QueryGenerator.shrink(minimal)) {
+				if (++attempts > maxAttempts) {
+					break;
+				}
+				final Optional<Throwable> candidateFailure = check(candidate);
+				if (candidateFailure.isPresent() && !(candidateFailure.get() instanceof CircuitBreaker.OpenException)) {
+					minimal = candidate;
+					minimalFailure = candidateFailure.get();
+					progress = true;
+					break;
+				}
+			}
+		}
+		return new Failure(original, minimal, message(minimalFailure));
+	}
+
+	private static String message(Throwable failure) {
+		return failure instanceof AssertionError ? String.valueOf(failure.getMessage())
+				: failure.getClass().getSimpleName() + ": " + failure.getMessage();
+	}
+
+	private static String describe(ParcelShopQuery query) {
+		return query.params().isEmpty() ? "(no parameters)" : query.params().stream()
+				.map(param -> param.getKey() + "=" + abbreviate(param.getValue()))
+				.collect(Collectors.joining("&", "?", ""));
+	}
+
+	private static String abbreviate(String value) {
+		final String escaped = value.chars().allMatch(c -> c >= 0x20 && c <= 0x7E) ? value
+				: value.codePoints().mapToObj(c -> c >= 0x20 && c <= 0x7E ? Character.toString(c) : String.format("\\u%04X", c))
+						.collect(Collectors.joining());
+		return "'" + (escaped.length() > 40 ? escaped.substring(0, 37) + "...(" + value.length() + " chars)" : escaped) + "'";
+	}
+
+}
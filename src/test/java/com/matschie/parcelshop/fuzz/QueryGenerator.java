@@ -0,0 +1,144 @@
+package com.matschie.parcelshop.fuzz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.matschie.parcelshop.services.ParcelShopQuery;
+
+/**
+ * Generates parcelshop queries mixing valid and edge-case inputs, and simpler variants of a query for shrinking.
+ * <ul>
+ * <li>postcodes: full, outward-only and area-only codes, odd spacing and case, invalid and injected text, very long input;</li>
+ * <li>cities: ASCII, Welsh and accented names, precomposed and decomposed accents, non-Latin scripts, emoji, blank and very long;</li>
+ * <li>counts: 0, 1, typical values, page-size boundaries, int overflow, negative, fractional and non-numeric;</li>
+ * <li>parameters: each optional, shuffled, sometimes repeated with a different value.</li>
+ * </ul>
+ * Generation only depends on the {@link Random} passed in, so a seed reproduces a case exactly.
+ */
+public final class QueryGenerator {
+
+	static final String POSTCODE = "postcode";
+	static final String CITY = "city";
+	static final String COUNT = "count";
+
+	private static final String[] POSTCODES = {
+		"EH1 1AA", "SW1A 1AA", "M1 1AE", "B33 8TH", "CR2 6XH", "DN55 1PT", "G1 1XQ", "BT1 5GS", "ZE1 0AA",
+		"EH1", "SW1A", "G1", "EH", "W", "eh1 1aa", "EH11AA", "  EH1  1AA  ", "EH1\t1AA",
+		"ZZ99 9ZZ", "12345", "EH1 1AAA", "1AA EH1", "EH1%201AA", "EH1'; --", "<EH1>", "", " "
+	};
+	private static final String[] CITIES = {
+		"Edinburgh", "Glasgow", "London", "Belfast", "Lerwick", "Stoke-on-Trent", "King's Lynn",
+		"Llanfairpwllgwyngyll", "Caerdydd", "Ystradgynlais", "B\u00F4rd", "Z\u00FCrich", "S\u00E3o Paulo",
+		"\u00C9dinburgh", "E\u0301dinburgh", // precomposed and combining acute accent
+		"\u6771\u4EAC", "\u041C\u043E\u0441\u043A\u0432\u0430", "\u0627\u0644\u0642\u0627\u0647\u0631\u0629", "\uD83C\uDFF4", // Tokyo, Moscow, Cairo, flag
+		"edinburgh", "EDINBURGH", "", " ", "null", "Edinburgh\u0000"
+	};
+	private static final String[] COUNTS = {
+		"0", "1", "2", "5", "10", "20", "49", "50", "51", "99", "100", "101", "1000",
+		"2147483647", "2147483648", "-1", "1.5", "1e2", "abc", "", " 5", "05"
+	};
+	private static final String[] KEYS = {POSTCODE, CITY, COUNT};
+	private static final Map<String, String> SIMPLEST = Map.of(POSTCODE, "EH1", CITY, "Edinburgh", COUNT, "1");
+
+	private static final int LONG_INPUT_LENGTH = 2048;
+
+	private QueryGenerator() {
+	}
+
+	/**
+	 * @param random source of randomness
+	 * @return a generated query
+	 */
+	public static ParcelShopQuery generate(Random random) {
+		final List<Map.Entry<String, String>> params = new ArrayList<>();
+		for (String key : KEYS) {
+			if (random.nextInt(10) < 8) {
+				params.add(Map.entry(key, value(key, random)));
+			}
+		}
+		if (random.nextInt(10) == 0) {
+			final String key = KEYS[random.nextInt(KEYS.length)];
+			params.add(Map.entry(key, value(key, random)));
+		}
+		Collections.shuffle(params, random);
+		return new ParcelShopQuery(params);
+	}
+
+	/**
+	 * Simpler variants of a query, each strictly smaller by {@link #size}: one parameter dropped, or one value
+	 * replaced by the simplest valid value, cut in half, or stripped of non-ASCII characters.
+	 * @param query query to simplify
+	 * @return candidates, most aggressive first
+	 */
+	public static List<ParcelShopQuery> shrink(ParcelShopQuery query) {
+		final List<Map.Entry<String, String>> params = query.params();
+		final List<ParcelShopQuery> candidates = new ArrayList<>();
+		for (int i = 0; i < params.size(); i++) {
+			final List<Map.Entry<String, String>> dropped = new ArrayList<>(params);
+			dropped.remove(i);
+			candidates.add(new ParcelShopQuery(dropped));
+		}
+		for (int i = 0; i < params.size(); i++) {
+			final String key = params.get(i).getKey();
+			final String value = params.get(i).getValue();
+			final List<String> simpler = new ArrayList<>();
+			if (SIMPLEST.containsKey(key)) {
+				simpler.add(SIMPLEST.get(key));
+			}
+			simpler.add(value.substring(0, value.length() / 2));
+			simpler.add(value.replaceAll("[^\\x20-\\x7E]", ""));
+			for (String candidate : simpler) {
+				final List<Map.Entry<String, String>> replaced = new ArrayList<>(params);
+				replaced.set(i, Map.entry(key, candidate));
+				candidates.add(new ParcelShopQuery(replaced));
+			}
+		}
+		final long size = size(query);
+		candidates.removeIf(candidate -> size(candidate) >= size);
+		return candidates;
+	}
+
+	/**
+	 * Shrinking order: fewer parameters, then fewer non-ASCII characters, then shorter values.
+	 * @return comparable size of a query
+	 */
+	static long size(ParcelShopQuery query) {
+		long nonAscii = 0;
+		long length = 0;
+		for (Map.Entry<String, String> param : query.params()) {
+			nonAscii += param.getValue().chars().filter(c -> c < 0x20 || c > 0x7E).count();
+			length += param.getValue().length();
+		}
+		return query.params().size() * 1_000_000_000L + nonAscii * 100_000L + length;
+	}
+
+	/**
+	 * @return the count the query asks for, or Integer.MAX_VALUE unless it has exactly one count that is a positive int
+	 */
+	static int requestedCount(ParcelShopQuery query) {
+		final List<String> counts = query.params().stream()
+				.filter(param -> COUNT.equals(param.getKey()))
+				.map(Map.Entry::getValue)
+				.toList();
+		if (counts.size() == 1 && counts.get(0).matches("[0-9]{1,9}") && Integer.parseInt(counts.get(0)) > 0) {
+			return Integer.parseInt(counts.get(0));
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	private static String value(String key, Random random) {
+		if (random.nextInt(50) == 0) {
+			return "A".repeat(LONG_INPUT_LENGTH);
+		}
+		final String[] values = switch (key) {
+			case POSTCODE -> POSTCODES;
+			case CITY -> CITIES;
+			default -> COUNTS;
+		};
+		return values[random.nextInt(values.length)];
+	}
+
+}
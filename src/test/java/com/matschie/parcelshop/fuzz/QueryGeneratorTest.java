@@ -0,0 +1,71 @@
+package com.matschie.parcelshop.fuzz;
+
+import static org.testng.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.matschie.parcelshop.services.ParcelShopQuery;
+
+public class QueryGeneratorTest {
+
+	@Test
+	public void sameSeedGeneratesSameQuery() {
+		for (long seed = 0; seed < 100; seed++) {
+			assertEquals(QueryGenerator.generate(new Random(seed)), QueryGenerator.generate(new Random(seed)));
+		}
+	}
+
+	@Test
+	public void shrinkCandidatesAreStrictlySmaller() {
+		for (long seed = 0; seed < 500; seed++) {
+			final ParcelShopQuery query = QueryGenerator.generate(new Random(seed));
+			final long size = QueryGenerator.size(query);
+			for (ParcelShopQuery candidate : QueryGenerator.shrink(query)) {
+				assertTrue(QueryGenerator.size(candidate) < size, candidate + " is not smaller than " + query);
+			}
+		}
+	}
+
+	@Test
+	public void shrinkDropsEachParameterFirst() {
+		final ParcelShopQuery query = ParcelShopQuery.empty().with("postcode", "SW1A 1AA").with("count", "20");
+		final List<ParcelShopQuery> candidates = QueryGenerator.shrink(query);
+		assertEquals(candidates.get(0), ParcelShopQuery.empty().with("count", "20"));
+		assertEquals(candidates.get(1), ParcelShopQuery.empty().with("postcode", "SW1A 1AA"));
+		assertTrue(candidates.contains(ParcelShopQuery.empty().with("postcode", "EH1").with("count", "20")));
+		assertTrue(candidates.contains(ParcelShopQuery.empty().with("postcode", "SW1A").with("count", "20")));
+	}
+
+	@Test
+	public void shrinkStripsNonAsciiCharacters() {
+		final ParcelShopQuery query = ParcelShopQuery.empty().with("city", "Z\u00FCrich");
+		assertTrue(QueryGenerator.shrink(query).contains(ParcelShopQuery.empty().with("city", "Zrich")));
+	}
+
+	@Test
+	public void repeatedShrinkingTerminatesAtEmptyQuery() {
+		ParcelShopQuery query = ParcelShopQuery.empty().with("postcode", "A".repeat(2048)).with("city", "\u6771\u4EAC").with("count", "abc"); // Tokyo
+		int steps = 0;
+		while (!QueryGenerator.shrink(query).isEmpty()) {
+			query = QueryGenerator.shrink(query).get(0);
+			assertTrue(++steps <= 3, "shrinking did not terminate");
+		}
+		assertEquals(query, ParcelShopQuery.empty());
+	}
+
+	@Test
+	public void requestedCountNeedsOnePositiveInt() {
+		assertEquals(QueryGenerator.requestedCount(ParcelShopQuery.empty().with("count", "20")), 20);
+		assertEquals(QueryGenerator.requestedCount(ParcelShopQuery.empty()), Integer.MAX_VALUE);
+		for (String count : new String[] { "0", "-1", "1.5", "2147483648", "abc" }) {
+			assertEquals(QueryGenerator.requestedCount(ParcelShopQuery.empty().with("count", count)), Integer.MAX_VALUE, count);
+		}
+		assertEquals(QueryGenerator.requestedCount(new ParcelShopQuery(List.of(Map.entry("count", "5"), Map.entry("count", "6")))),
+				Integer.MAX_VALUE);
+	}
+
+}
@@ -1,30 +1,48 @@
 package com.matschie.parcelshop.reporting;
 
-import com.aventstack.extentreports.ExtentTest;
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+
 import com.aventstack.extentreports.Status;
+import com.matschie.general.jfr.StepEvent;
+import com.matschie.general.utils.TimingRecorder;
+import com.matschie.general.utils.TimingRecorder.Phase;
 
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
+import io.qameta.allure.Allure;
 
 /**
  * Cucumber plugin to integrate ExtentReports with Cucumber execution.
- * Listens to Cucumber events and logs them to ExtentReports.
+ * Listens to Cucumber events and streams them to the ExtentReports event log;
+ * the HTML report is rendered from that log when the run finishes.
+ * Nothing is initialised until the first scenario starts. With {@code extent.enabled=false} no event log
+ * is written and no report rendered, but steps are still timed: recorded phases are drained per step,
+ * attached to Allure and committed as Flight Recorder step events.
  */
 public class ExtentCucumberAdapter implements ConcurrentEventListener {
 
-	private static ExtentTest featureTest;
-	private ThreadLocal<ExtentTest> scenarioTest = new ThreadLocal<>();
-	private static String currentFeatureName = "";
-	
-	public ExtentCucumberAdapter() {
-		ExtentReportManager.createInstance();
-	}
+	private ThreadLocal<String> scenarioId = new ThreadLocal<>();
+	private ThreadLocal<Map<String, Double>> scenarioTimings = ThreadLocal.withInitial(LinkedHashMap::new);
+	private ThreadLocal<StepEvent> stepEvent = new ThreadLocal<>();
+	private boolean extentEnabled;
 
 	@Override
 	public void setEventPublisher(EventPublisher publisher) {
-		publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
-		publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
-		publisher.registerHandlerFor(TestSourceRead.class, this::handleTestSourceRead);
+		extentEnabled = configBoolean("extent.enabled", true);
+		if (extentEnabled) {
+			publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
+			publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
+			publisher.registerHandlerFor(TestSourceRead.class, this::handleTestSourceRead);
+		}
+		// Step handlers also drain the timing recorder, so they are registered with or without the report
 		publisher.registerHandlerFor(TestCaseStarted.class, this::handleTestCaseStarted);
 		publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
 		publisher.registerHandlerFor(TestStepStarted.class, this::handleTestStepStarted);
@@ -32,11 +50,11 @@ public class ExtentCucumberAdapter implements ConcurrentEventListener {
 	}
 
 	private void handleTestRunStarted(TestRunStarted event) {
-		// Test run started - report is already initialized
+		// Test run started - the event log is opened by the first scenario
 	}
 
 	private void handleTestRunFinished(TestRunFinished event) {
-		// Flush the report when all tests are finished
+		// Close the event log and render the report when all tests are finished
 		ExtentReportManager.flush();
 	}
 
@@ -45,63 +63,124 @@ public class ExtentCucumberAdapter implements ConcurrentEventListener {
 	}
 
 	private void handleTestCaseStarted(TestCaseStarted event) {
-		TestCase testCase = event.getTestCase();
-		String scenarioName = testCase.getName();
-		String featureName = testCase.getUri().toString().substring(testCase.getUri().toString().lastIndexOf("/") + 1);
-		
-		// Create feature node only once for all scenarios in the same feature
-		if (!featureName.equals(currentFeatureName)) {
-			featureTest = ExtentReportManager.getExtent().createTest(featureName);
-			currentFeatureName = featureName;
+		scenarioTimings.get().clear();
+		if (extentEnabled) {
+			TestCase testCase = event.getTestCase();
+			String id = testCase.getId().toString();
+			String featureName = testCase.getUri().toString().substring(testCase.getUri().toString().lastIndexOf("/") + 1);
+
+			// Scenario node is created under its feature node when the log is rendered
+			ExtentReportManager.getEventLog().append(ExtentEventLog.SCENARIO_STARTED, id, new JSONObject()
+					.put("feature", featureName)
+					.put("name", testCase.getName())
+					.put("tags", testCase.getTags()));
+			scenarioId.set(id);
 		}
-		
-		// Create scenario node under feature with tags
-		ExtentTest scenario = featureTest.createNode(scenarioName);
-		
-		// Add tags to scenario
-		testCase.getTags().forEach(tag -> scenario.assignCategory(tag));
-		
-		scenarioTest.set(scenario);
+		// Discard phases recorded outside any step (e.g. by hooks)
+		TimingRecorder.drain();
 	}
 
 	private void handleTestCaseFinished(TestCaseFinished event) {
 		Result result = event.getResult();
 		Status status = getStatus(result.getStatus());
-		
-		ExtentTest scenario = scenarioTest.get();
-		if (scenario != null && result.getError() != null) {
-			// Only log if there's an error, otherwise the status is already shown by step results
-			scenario.log(status, result.getError());
+
+		String id = scenarioId.get();
+		if (id != null) {
+			if (result.getError() != null) {
+				// Only log if there's an error, otherwise the status is already shown by step results
+				logError(id, status, result.getError());
+			}
+			log(id, Status.INFO, "Scenario time " + result.getDuration().toMillis() + " ms: "
+					+ TimingSummary.format(scenarioTimings.get()));
+			ExtentReportManager.getEventLog().append(ExtentEventLog.SCENARIO_FINISHED, id, new JSONObject());
+			scenarioId.remove();
 		}
+		// Runner threads outlive the suite in long runs; drop the per-thread map rather than keep it reachable
+		scenarioTimings.remove();
 	}
 
 	private void handleTestStepStarted(TestStepStarted event) {
-		// Step started
+		// Flight Recorder step event spans started to finished; skipped entirely when not recording
+		StepEvent step = new StepEvent();
+		if (step.isEnabled()) {
+			step.begin();
+			stepEvent.set(step);
+		}
 	}
 
 	private void handleTestStepFinished(TestStepFinished event) {
 		TestStep testStep = event.getTestStep();
 		Result result = event.getResult();
-		
+		commitStepEvent(event.getTestCase().getName(), testStep, result);
+
 		if (testStep instanceof PickleStepTestStep) {
 			PickleStepTestStep pickleStep = (PickleStepTestStep) testStep;
-			String stepText = pickleStep.getStep().getText();
+			String stepText = pickleStep.getStep().getText() + " (" + result.getDuration().toMillis() + " ms)";
 			Status status = getStatus(result.getStatus());
-			
-			ExtentTest scenario = scenarioTest.get();
-			if (scenario != null) {
+
+			List<Phase> phases = TimingRecorder.drain();
+			TimingSummary.StepTiming timing = TimingSummary.StepTiming.of(
+					event.getTestCase().getName(), pickleStep.getStep().getText(), result.getDuration(), phases);
+			timing.breakdown().forEach((name, millis) -> scenarioTimings.get().merge(name, millis, Double::sum));
+
+			String id = scenarioId.get();
+			if (id != null) {
+				ExtentReportManager.getEventLog().append(ExtentEventLog.STEP_TIMING, id, timing.toJson());
 				if (status == Status.PASS) {
-					scenario.log(status, stepText);
+					log(id, status, stepText);
 				} else if (status == Status.FAIL) {
-					scenario.log(status, stepText);
+					log(id, status, stepText);
 					if (result.getError() != null) {
-						scenario.fail(result.getError());
+						logError(id, status, result.getError());
 					}
 				} else if (status == Status.SKIP) {
-					scenario.log(status, stepText);
+					log(id, status, stepText);
+				}
+				if (!phases.isEmpty()) {
+					log(id, Status.INFO, "Timing: " + TimingSummary.format(timing.breakdown()));
 				}
 			}
+			if (!phases.isEmpty()) {
+				Allure.addAttachment("Timing breakdown", "text/plain", describe(phases, timing.breakdown()), ".txt");
+			}
+		}
+	}
+
+	private void commitStepEvent(String scenario, TestStep testStep, Result result) {
+		StepEvent step = stepEvent.get();
+		if (step == null) {
+			return;
+		}
+		stepEvent.remove();
+		step.end();
+		if (step.shouldCommit()) {
+			step.scenario = scenario;
+			step.step = testStep instanceof PickleStepTestStep pickleStep
+					? pickleStep.getStep().getText()
+					: testStep.getCodeLocation();
+			step.status = result.getStatus().name();
+			step.commit();
+		}
+	}
+
+	private void log(String id, Status status, String text) {
+		ExtentReportManager.getEventLog().append(ExtentEventLog.LOG, id,
+				new JSONObject().put("status", status.name()).put("text", text));
+	}
+
+	private void logError(String id, Status status, Throwable error) {
+		StringWriter stackTrace = new StringWriter();
+		error.printStackTrace(new PrintWriter(stackTrace));
+		ExtentReportManager.getEventLog().append(ExtentEventLog.ERROR, id,
+				new JSONObject().put("status", status.name()).put("error", stackTrace.toString()));
+	}
+
+	private String describe(List<Phase> phases, Map<String, Double> breakdown) {
+		StringBuilder text = new StringBuilder(TimingSummary.format(breakdown)).append(System.lineSeparator());
+		for (Phase phase : phases) {
+			text.append(String.format("%-12s %9.1f ms  %s%n", phase.name(), phase.millis(), phase.detail()));
 		}
+		return text.toString();
 	}
 
 	private Status getStatus(io.cucumber.plugin.event.Status cucumberStatus) {
@@ -0,0 +1,144 @@
+package com.matschie.parcelshop.reporting;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONObject;
+
+/**
+ * Append-only NDJSON log of report events.
+ * Test threads only enqueue a serialised line; a daemon thread drains the queue to disk
+ * at a fixed interval, so neither the report tree nor pending events grow with the run length.
+ */
+public final class ExtentEventLog implements AutoCloseable {
+
+	public static final String SCENARIO_STARTED = "scenarioStarted";
+	public static final String SCENARIO_FINISHED = "scenarioFinished";
+	public static final String LOG = "log";
+	public static final String ERROR = "error";
+	public static final String STEP_TIMING = "stepTiming";
+	public static final String HTTP_LATENCY = "httpLatency";
+
+	private static final Logger LOGGER = Logger.getLogger(ExtentEventLog.class.getName());
+
+	private final Path path;
+	private final BufferedWriter writer;
+	private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+	private final ScheduledExecutorService flusher;
+	private boolean closed;
+
+	/**
+	 * Open (create or truncate) an event log and start background flushing.
+	 * @param path NDJSON file to write
+	 * @param flushInterval how often queued events are written to disk
+	 * @throws UncheckedIOException if the file cannot be opened
+	 */
+	public ExtentEventLog(Path path, Duration flushInterval) {
+		this.path = path;
+		try {
+			Files.createDirectories(path.toAbsolutePath().getParent());
+			this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to open report event log '" + path + "'", e);
+		}
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "extent-event-log-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long intervalMillis = Math.max(1, flushInterval.toMillis());
+		// Every field is assigned by now and the class is final, so the flusher never sees a partly built log
+		flusher.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return path of the NDJSON file
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Queue an event for writing. Never blocks on I/O.
+	 * @param type event type (one of the constants in this class)
+	 * @param scenarioId id of the scenario the event belongs to
+	 * @param fields event payload; type, id and ts are added to it
+	 */
+	public void append(String type, String scenarioId, JSONObject fields) {
+		fields.put("type", type).put("id", scenarioId).put("ts", System.currentTimeMillis());
+		pending.add(fields.toString());
+	}
+
+	/**
+	 * Write every queued event to disk.
+	 */
+	public synchronized void drain() {
+		if (closed) {
+			return;
+		}
+		try {
+			String line;
+			while ((line = pending.poll()) != null) {
+				writer.write(line);
+				writer.newLine();
+			}
+			writer.flush();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to write report events to " + path, e);
+		}
+	}
+
+	/**
+	 * Stop background flushing, write remaining events and close the file.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		flusher.shutdownNow();
+		drain();
+		closed = true;
+		try {
+			writer.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to close report event log " + path, e);
+		}
+	}
+
+	/**
+	 * Stream the events of an NDJSON log, one parsed line at a time.
+	 * @param path NDJSON file to read
+	 * @param consumer receives each event in file order
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	public static void replay(Path path, Consumer<JSONObject> consumer) {
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					consumer.accept(new JSONObject(line));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read report event log '" + path + "'", e);
+		}
+	}
+
+}
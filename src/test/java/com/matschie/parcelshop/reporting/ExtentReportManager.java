@@ -1,48 +1,77 @@
 package com.matschie.parcelshop.reporting;
 
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
 import java.awt.Desktop;
+import java.awt.GraphicsEnvironment;
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.json.JSONObject;
+
+import com.matschie.api.rest.assured.api.client.HttpLatency;
 
 /**
  * ExtentReports manager for generating HTML test reports.
  * Provides centralized configuration and test instance management.
+ * <p>
+ * During the run, scenario events are streamed to an NDJSON event log ({@link ExtentEventLog})
+ * that is flushed in the background. The Spark HTML report is rendered from that log once,
+ * at the end of the run (or later, from one or more logs, via {@link #render(List)}).
+ * The Spark reporter itself is only built when a report is rendered, so runs that keep
+ * just the event log ({@code extent.html.enabled=false}) never load it.
  */
 public class ExtentReportManager {
-	
+
+	private static final String REPORT_DIR = "target/extent-reports";
+	private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(2);
+
 	private static ExtentReports extent;
 	private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
 	private static String reportPath;
-	
+	private static String timestamp;
+	private static ExtentEventLog eventLog;
+
 	/**
 	 * Initialize ExtentReports with configuration.
 	 * @return configured ExtentReports instance
 	 */
-	public static ExtentReports createInstance() {
-		String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
-		reportPath = "target/extent-reports/ExtentReport_" + timestamp + ".html";
-		
+	public static synchronized ExtentReports createInstance() {
+		reportPath = REPORT_DIR + "/ExtentReport_" + timestamp() + ".html";
+
 		// Create reports directory if not exists
-		new File("target/extent-reports").mkdirs();
-		
+		new File(REPORT_DIR).mkdirs();
+
 		ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-		
+
 		// Configure report appearance
 		sparkReporter.config().setDocumentTitle("ParcelShop API Test Report");
 		sparkReporter.config().setReportName("ParcelShop API Automation Results");
 		sparkReporter.config().setTheme(Theme.STANDARD);
 		sparkReporter.config().setTimeStampFormat("yyyy-MM-dd HH:mm:ss");
 		sparkReporter.config().setEncoding("UTF-8");
-		
+
 		extent = new ExtentReports();
 		extent.attachReporter(sparkReporter);
-		
+
 		// Add system information
 		extent.setSystemInfo("Application", "Hermes ParcelShop API");
 		extent.setSystemInfo("API Base URL", "https://api.hermesworld.co.uk/enterprise-parcelshop-api/v1");
@@ -52,21 +81,43 @@ public class ExtentReportManager {
 		extent.setSystemInfo("OS", System.getProperty("os.name") + " " + System.getProperty("os.version"));
 		extent.setSystemInfo("User", System.getProperty("user.name"));
 		extent.setSystemInfo("Time Zone", System.getProperty("user.timezone"));
-		
+
 		return extent;
 	}
-	
+
 	/**
 	 * Get the ExtentReports instance, creating if necessary.
 	 * @return ExtentReports instance
 	 */
-	public static ExtentReports getExtent() {
+	public static synchronized ExtentReports getExtent() {
 		if (extent == null) {
 			createInstance();
 		}
 		return extent;
 	}
-	
+
+	/**
+	 * Get the event log of the current run, opening it on first use.
+	 * @return event log that scenario events are streamed to
+	 */
+	public static synchronized ExtentEventLog getEventLog() {
+		if (eventLog == null) {
+			eventLog = new ExtentEventLog(Paths.get(REPORT_DIR, "ExtentEvents_" + timestamp() + ".ndjson"),
+					configDuration("extent.flush.interval", DEFAULT_FLUSH_INTERVAL));
+		}
+		return eventLog;
+	}
+
+	/**
+	 * @return run timestamp shared by the event log and the HTML report, fixed on first use
+	 */
+	private static synchronized String timestamp() {
+		if (timestamp == null) {
+			timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+		}
+		return timestamp;
+	}
+
 	/**
 	 * Create a new test in the report.
 	 * @param testName test name
@@ -76,7 +127,7 @@ public class ExtentReportManager {
 		ExtentTest extentTest = getExtent().createTest(testName, description);
 		test.set(extentTest);
 	}
-	
+
 	/**
 	 * Get the current test instance.
 	 * @return current ExtentTest
@@ -84,34 +135,116 @@ public class ExtentReportManager {
 	public static ExtentTest getTest() {
 		return test.get();
 	}
-	
+
+	/**
+	 * Log the HTTP latency of each endpoint, close the event log, render the HTML report from it and finalize the report.
+	 * Set {@code extent.html.enabled=false} to keep only the event log and render later.
+	 * The report is opened in the default browser only for interactive runs.
+	 */
+	public static synchronized void flush() {
+		if (eventLog == null) {
+			return;
+		}
+		// The endpoint name stands in for the scenario id; histograms of several logs are added when rendered
+		HttpLatency.endpoints().forEach((endpoint, latency) -> eventLog.append(ExtentEventLog.HTTP_LATENCY, endpoint, latency.toJson()));
+		eventLog.close();
+		if (configBoolean("extent.html.enabled", true)) {
+			render(List.of(eventLog.getPath()));
+			if (isInteractive()) {
+				openReport();
+			} else {
+				System.out.println("📁 Report location: " + reportPath);
+			}
+		}
+	}
+
+	/**
+	 * Render the HTML report from one or more NDJSON event logs (e.g. one per shard).
+	 * Logs are streamed line by line; scenarios are grouped under their feature file.
+	 * @param eventLogs event log files to render
+	 */
+	public static synchronized void render(List<Path> eventLogs) {
+		ExtentReports report = getExtent();
+		Map<String, ExtentTest> features = new LinkedHashMap<>();
+		Map<String, ExtentTest> scenarios = new HashMap<>();
+		List<TimingSummary.StepTiming> timings = new ArrayList<>();
+		Map<String, HttpLatency> latencies = new TreeMap<>();
+
+		for (Path log : eventLogs) {
+			ExtentEventLog.replay(log, event -> {
+				String id = event.getString("id");
+				switch (event.getString("type")) {
+					case ExtentEventLog.SCENARIO_STARTED -> {
+						ExtentTest feature = features.computeIfAbsent(event.getString("feature"), report::createTest);
+						ExtentTest scenario = feature.createNode(event.getString("name"));
+						event.getJSONArray("tags").forEach(tag -> scenario.assignCategory(tag.toString()));
+						scenario.getModel().setStartTime(new Date(event.getLong("ts")));
+						scenarios.put(id, scenario);
+					}
+					case ExtentEventLog.LOG -> withScenario(scenarios.get(id), scenario -> scenario
+							.log(Status.valueOf(event.getString("status")), event.getString("text")));
+					case ExtentEventLog.ERROR -> withScenario(scenarios.get(id), scenario -> scenario
+							.log(Status.valueOf(event.getString("status")), MarkupHelper.createCodeBlock(event.getString("error"))));
+					case ExtentEventLog.STEP_TIMING -> timings.add(TimingSummary.StepTiming.fromJson(event));
+					case ExtentEventLog.HTTP_LATENCY -> latencies.computeIfAbsent(id, endpoint -> new HttpLatency())
+							.add(HttpLatency.fromJson(event));
+					case ExtentEventLog.SCENARIO_FINISHED -> withScenario(scenarios.remove(id), scenario -> scenario
+							.getModel().setEndTime(new Date(event.getLong("ts"))));
+					default -> {
+						// Unknown event types from newer writers are ignored
+					}
+				}
+			});
+		}
+
+		TimingSummary.publish(report, timings, latencies);
+		report.flush();
+	}
+
+	/**
+	 * Apply an action to a rendered scenario; events of scenarios whose start was not logged
+	 * (e.g. a truncated log from an aborted shard) are skipped.
+	 */
+	private static void withScenario(ExtentTest scenario, Consumer<ExtentTest> action) {
+		if (scenario != null) {
+			action.accept(scenario);
+		}
+	}
+
 	/**
-	 * Flush and finalize the report.
-	 * Automatically opens the report in default browser.
+	 * Whether the run has a user in front of it: a display is available and no CI
+	 * environment is detected. {@code extent.open.report} overrides the detection.
 	 */
-	public static void flush() {
-		if (extent != null) {
-			extent.flush();
-			openReport();
+	private static boolean isInteractive() {
+		String override = config("extent.open.report");
+		if (override != null && !override.isBlank()) {
+			return configBoolean("extent.open.report", false);
 		}
+		return !GraphicsEnvironment.isHeadless() && System.getenv("CI") == null;
 	}
-	
+
 	/**
-	 * Automatically open the generated ExtentReport in the default browser.
+	 * Open the generated ExtentReport in the default browser on a daemon thread,
+	 * so a misbehaving desktop integration cannot hold up the end of the run.
 	 */
 	private static void openReport() {
-		try {
-			if (reportPath != null) {
+		if (reportPath == null) {
+			return;
+		}
+		Thread opener = new Thread(() -> {
+			try {
 				File reportFile = new File(reportPath);
 				if (reportFile.exists() && Desktop.isDesktopSupported()) {
 					Desktop.getDesktop().browse(reportFile.toURI());
 					System.out.println("\n✅ ExtentReport opened automatically: " + reportPath);
 				}
+			} catch (Exception e) {
+				System.err.println("⚠️  Could not open ExtentReport automatically: " + e.getMessage());
+				System.out.println("📁 Report location: " + reportPath);
 			}
-		} catch (Exception e) {
-			System.err.println("⚠️  Could not open ExtentReport automatically: " + e.getMessage());
-			System.out.println("📁 Report location: " + reportPath);
-		}
+		}, "extent-report-opener");
+		opener.setDaemon(true);
+		opener.start();
 	}
 
 }
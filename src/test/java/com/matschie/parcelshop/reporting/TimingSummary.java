@@ -0,0 +1,142 @@
+package com.matschie.parcelshop.reporting;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.matschie.api.rest.assured.api.client.HttpLatency;
+import com.matschie.general.utils.TimingRecorder.Phase;
+
+/**
+ * Renders per-step timings into the suite-level "where did the time go" summary:
+ * phase totals, the slowest steps and the HTTP latency of each endpoint.
+ */
+public class TimingSummary {
+
+	private static final int SLOWEST_STEPS = 10;
+
+	/**
+	 * Timing of one executed step.
+	 * @param scenario scenario name
+	 * @param step step text
+	 * @param duration total step duration reported by Cucumber
+	 * @param breakdown milliseconds per phase name, including "other"
+	 */
+	public record StepTiming(String scenario, String step, Duration duration, Map<String, Double> breakdown) {
+
+		/**
+		 * Build a step timing from recorded phases. Phase time is summed per phase name, plus
+		 * "other" for the unaccounted remainder (step glue, assertions outside instrumented blocks).
+		 * @param scenario scenario name
+		 * @param step step text
+		 * @param duration total step duration
+		 * @param phases phases recorded while the step ran
+		 * @return step timing
+		 */
+		public static StepTiming of(String scenario, String step, Duration duration, List<Phase> phases) {
+			final Map<String, Double> totals = new LinkedHashMap<>();
+			double accounted = 0;
+			for (Phase phase : phases) {
+				totals.merge(phase.name(), phase.millis(), Double::sum);
+				accounted += phase.millis();
+			}
+			totals.put("other", Math.max(0, duration.toNanos() / 1_000_000.0 - accounted));
+			return new StepTiming(scenario, step, duration, totals);
+		}
+
+		/**
+		 * @return event log payload for this timing
+		 */
+		public JSONObject toJson() {
+			return new JSONObject()
+					.put("scenario", scenario)
+					.put("step", step)
+					.put("durationNanos", duration.toNanos())
+					.put("breakdown", new JSONObject(breakdown));
+		}
+
+		/**
+		 * @param json event log payload written by {@link #toJson()}
+		 * @return step timing
+		 */
+		public static StepTiming fromJson(JSONObject json) {
+			final JSONObject breakdownJson = json.getJSONObject("breakdown");
+			final Map<String, Double> breakdown = new LinkedHashMap<>();
+			breakdownJson.keySet().forEach(name -> breakdown.put(name, breakdownJson.getDouble(name)));
+			return new StepTiming(json.getString("scenario"), json.getString("step"),
+					Duration.ofNanos(json.getLong("durationNanos")), breakdown);
+		}
+	}
+
+	private TimingSummary() {
+	}
+
+	/**
+	 * Render a phase breakdown as a single report line.
+	 * @param breakdown phase name to milliseconds
+	 * @return text such as "http 120.4 ms | json-parse 3.1 ms | other 0.8 ms"
+	 */
+	public static String format(Map<String, Double> breakdown) {
+		final StringBuilder text = new StringBuilder();
+		breakdown.forEach((name, millis) -> {
+			if (text.length() > 0) {
+				text.append(" | ");
+			}
+			text.append(name).append(' ').append(String.format("%.1f ms", millis));
+		});
+		return text.toString();
+	}
+
+	/**
+	 * Publish the suite summary as a dedicated node in the Extent report.
+	 * @param extent report to publish into
+	 * @param steps timings of every executed step
+	 * @param latencies HTTP latency per endpoint, combined over every rendered event log
+	 */
+	public static void publish(ExtentReports extent, List<StepTiming> steps, Map<String, HttpLatency> latencies) {
+		if (steps.isEmpty() && latencies.isEmpty()) {
+			return;
+		}
+		final ExtentTest summary = extent.createTest("Suite Timing Summary");
+		if (!steps.isEmpty()) {
+			final Map<String, Double> totals = new LinkedHashMap<>();
+			steps.forEach(step -> step.breakdown().forEach((name, millis) -> totals.merge(name, millis, Double::sum)));
+
+			final List<StepTiming> slowest = steps.stream()
+					.sorted(Comparator.comparing(StepTiming::duration).reversed())
+					.limit(SLOWEST_STEPS)
+					.toList();
+			final String[][] table = new String[slowest.size() + 1][];
+			table[0] = new String[] {"Duration (ms)", "Scenario", "Step", "Breakdown"};
+			for (int i = 0; i < slowest.size(); i++) {
+				final StepTiming step = slowest.get(i);
+				table[i + 1] = new String[] {
+						String.valueOf(step.duration().toMillis()), step.scenario(), step.step(), format(step.breakdown())};
+			}
+			summary.log(Status.INFO, "Time by phase across " + steps.size() + " steps: " + format(totals));
+			summary.log(Status.INFO, MarkupHelper.createTable(table));
+		}
+		if (!latencies.isEmpty()) {
+			final String[][] table = new String[latencies.size() + 1][];
+			table[0] = new String[] {"Endpoint", "Calls", "Errors", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+			int row = 1;
+			for (Map.Entry<String, HttpLatency> endpoint : latencies.entrySet()) {
+				final HttpLatency latency = endpoint.getValue();
+				table[row++] = new String[] {endpoint.getKey(), String.valueOf(latency.count()), String.valueOf(latency.errors()),
+						String.valueOf(latency.percentile(50).toMillis()), String.valueOf(latency.percentile(95).toMillis()),
+						String.valueOf(latency.percentile(99).toMillis()), String.valueOf(latency.max().toMillis())};
+			}
+			summary.log(Status.INFO, "HTTP latency by endpoint");
+			summary.log(Status.INFO, MarkupHelper.createTable(table));
+		}
+	}
+
+}
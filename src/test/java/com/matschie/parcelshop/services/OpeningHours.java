@@ -0,0 +1,184 @@
+package com.matschie.parcelshop.services;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Locale;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Weekly opening hours of one parcelshop, parsed once into a minute-of-week bitset
+ * (7 x 1440 bits) plus, per day, whether the shop opens at all and the latest closing minute.
+ * "Open at T", "open on day" and "open after T" are then a bit test or an array lookup,
+ * so large result sets can be filtered repeatedly without re-parsing time strings.
+ * A closing time of 00:00 or 24:00 means end of day; a closing time before the opening time
+ * runs past midnight into the next day, up to an early-morning cutoff
+ * ({@code opening.hours.overnight.cutoff}, default 06:00). A later closing time is taken as
+ * an inverted range (e.g. 18:00-17:30) and the day is treated as invalid.
+ */
+public final class OpeningHours {
+
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+	private static final int DEFAULT_OVERNIGHT_CUTOFF = 6 * 60;
+
+	/** Latest closing minute of a range running past midnight; -1 until read from configuration. */
+	private static volatile int overnightCutoff = -1;
+
+	static {
+		onReload(() -> overnightCutoff = -1);
+	}
+
+	private final String parcelShopId;
+	private final long[] openMinutes = new long[(MINUTES_PER_WEEK + 63) / 64];
+	private final int[] lastCloseMinute = new int[7];
+	private int openDays;
+
+	private OpeningHours(String parcelShopId) {
+		this.parcelShopId = parcelShopId;
+	}
+
+	/**
+	 * @param parcelShop parcelshop JSON object with {@code parcelShopId} and {@code businessHours}
+	 * @return index of the shop's hours; a shop without business hours is never open
+	 */
+	public static OpeningHours of(JSONObject parcelShop) {
+		final OpeningHours hours = new OpeningHours(parcelShop.optString("parcelShopId"));
+		final JSONArray days = parcelShop.optJSONArray("businessHours");
+		if (days != null) {
+			for (int i = 0; i < days.length(); i++) {
+				final JSONObject day = days.optJSONObject(i);
+				if (day != null) {
+					hours.add(day.optString("dayOfWeek", ""), day.optString("openTime", ""), day.optString("closeTime", ""));
+				}
+			}
+		}
+		return hours;
+	}
+
+	public String getParcelShopId() {
+		return parcelShopId;
+	}
+
+	/**
+	 * @return true if the shop is open at that minute
+	 */
+	public boolean isOpenAt(DayOfWeek day, LocalTime time) {
+		final int minute = minuteOfWeek(day, time.getHour() * 60 + time.getMinute());
+		return (openMinutes[minute >>> 6] & (1L << minute)) != 0;
+	}
+
+	/**
+	 * @return true if the shop opens at any time on that day
+	 */
+	public boolean isOpenOn(DayOfWeek day) {
+		return (openDays & (1 << day.ordinal())) != 0;
+	}
+
+	/**
+	 * @return true if the shop is still open after the given time on that day (e.g. late opening after 20:00)
+	 */
+	public boolean isOpenAfter(DayOfWeek day, LocalTime time) {
+		return lastCloseMinute[day.ordinal()] > time.getHour() * 60 + time.getMinute();
+	}
+
+	private void add(String dayOfWeek, String openTime, String closeTime) {
+		if (dayOfWeek == null || openTime == null || closeTime == null || openTime.isEmpty() || closeTime.isEmpty()) {
+			// Closed that day
+			return;
+		}
+		final DayOfWeek day;
+		try {
+			day = DayOfWeek.valueOf(dayOfWeek.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return;
+		}
+		final int open = toMinuteOfDay(openTime, false);
+		final int close = toMinuteOfDay(closeTime, true);
+		if (!isValidRange(open, close)) {
+			return;
+		}
+		openDays |= 1 << day.ordinal();
+		if (close > open) {
+			setRange(minuteOfWeek(day, open), minuteOfWeek(day, 0) + close);
+			lastCloseMinute[day.ordinal()] = Math.max(lastCloseMinute[day.ordinal()], close);
+		} else {
+			// Runs past midnight
+			setRange(minuteOfWeek(day, open), minuteOfWeek(day, 0) + MINUTES_PER_DAY);
+			lastCloseMinute[day.ordinal()] = MINUTES_PER_DAY;
+			final DayOfWeek next = day.plus(1);
+			setRange(minuteOfWeek(next, 0), minuteOfWeek(next, 0) + close);
+		}
+	}
+
+	/**
+	 * Set bits [from, to) of the weekly bitset.
+	 */
+	private void setRange(int from, int to) {
+		for (int minute = from; minute < to; minute++) {
+			openMinutes[minute >>> 6] |= 1L << minute;
+		}
+	}
+
+	private static int minuteOfWeek(DayOfWeek day, int minuteOfDay) {
+		return day.ordinal() * MINUTES_PER_DAY + minuteOfDay;
+	}
+
+	/**
+	 * @param open opening minute of day from {@link #toMinuteOfDay(String, boolean)}
+	 * @param close closing minute of day from {@link #toMinuteOfDay(String, boolean)}
+	 * @return true if both parsed and the shop opens before it closes, or closes past midnight
+	 * no later than the overnight cutoff
+	 */
+	static boolean isValidRange(final int open, final int close) {
+		if (open < 0 || close < 0 || open == close) {
+			return false;
+		}
+		return open < close || close <= overnightCutoff();
+	}
+
+	/**
+	 * @return minute of day of {@code opening.hours.overnight.cutoff}, read on first use after each reload
+	 * @throws IllegalArgumentException if the configured cutoff is not a time of day
+	 */
+	private static int overnightCutoff() {
+		int cutoff = overnightCutoff;
+		if (cutoff < 0) {
+			final String configured = config("opening.hours.overnight.cutoff");
+			cutoff = configured == null || configured.isBlank() ? DEFAULT_OVERNIGHT_CUTOFF : toMinuteOfDay(configured, false);
+			if (cutoff < 0) {
+				throw new IllegalArgumentException("opening.hours.overnight.cutoff is not a time of day: " + configured);
+			}
+			overnightCutoff = cutoff;
+		}
+		return cutoff;
+	}
+
+	/**
+	 * @return minute of day for "HH:mm[:ss]", -1 if unparseable; a closing time of 00:00 or 24:00 means end of day
+	 */
+	static int toMinuteOfDay(final String time, final boolean closing) {
+		final String[] parts = time.trim().split(":");
+		if (parts.length < 2) {
+			return -1;
+		}
+		try {
+			final int minute = Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
+			if (closing && (minute == 0 || minute == MINUTES_PER_DAY)) {
+				return MINUTES_PER_DAY;
+			}
+			return minute >= 0 && minute < MINUTES_PER_DAY ? minute : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return parcelShopId;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.matschie.parcelshop.services;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+import static org.testng.Assert.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+public class OpeningHoursTest {
+
+	@Test
+	public void dayRangeIsOpenBetweenOpeningAndClosing() {
+		final OpeningHours hours = hours("MONDAY", "08:00", "17:30");
+		assertTrue(hours.isOpenOn(DayOfWeek.MONDAY));
+		assertFalse(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(7, 59)));
+		assertTrue(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(8, 0)));
+		assertTrue(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(17, 29)));
+		assertFalse(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(17, 30)));
+		assertTrue(hours.isOpenAfter(DayOfWeek.MONDAY, LocalTime.of(17, 0)));
+		assertFalse(hours.isOpenAfter(DayOfWeek.MONDAY, LocalTime.of(17, 30)));
+		assertFalse(hours.isOpenOn(DayOfWeek.TUESDAY));
+	}
+
+	@Test
+	public void closingAtMidnightMeansEndOfDay() {
+		for (String close : new String[] {"00:00", "24:00"}) {
+			final OpeningHours hours = hours("MONDAY", "20:00", close);
+			assertTrue(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(23, 59)), close);
+			assertFalse(hours.isOpenAt(DayOfWeek.TUESDAY, LocalTime.of(0, 0)), close);
+		}
+	}
+
+	@Test
+	public void overnightRangeRunsIntoTheNextDay() {
+		final OpeningHours hours = hours("SUNDAY", "22:00", "02:00");
+		assertTrue(hours.isOpenOn(DayOfWeek.SUNDAY));
+		assertTrue(hours.isOpenAt(DayOfWeek.SUNDAY, LocalTime.of(23, 0)));
+		assertTrue(hours.isOpenAfter(DayOfWeek.SUNDAY, LocalTime.of(23, 30)));
+		// Sunday night wraps to Monday morning
+		assertTrue(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(1, 59)));
+		assertFalse(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(2, 0)));
+		assertFalse(hours.isOpenOn(DayOfWeek.MONDAY));
+	}
+
+	@Test
+	public void invertedRangeIsInvalid() {
+		final OpeningHours hours = hours("MONDAY", "18:00", "17:30");
+		assertFalse(hours.isOpenOn(DayOfWeek.MONDAY));
+		assertFalse(hours.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(18, 30)));
+		assertFalse(hours.isOpenAt(DayOfWeek.TUESDAY, LocalTime.of(9, 0)));
+	}
+
+	@Test
+	public void validRangeRules() {
+		assertTrue(isValidRange("08:00", "17:30"));
+		assertTrue(isValidRange("22:00", "00:00"));
+		assertTrue(isValidRange("22:00", "06:00"));
+		assertFalse(isValidRange("22:00", "06:01"));
+		assertFalse(isValidRange("18:00", "17:30"));
+		assertFalse(isValidRange("09:00", "09:00"));
+		assertFalse(isValidRange("03:00", "03:00"));
+		assertFalse(isValidRange("8am", "17:30"));
+		assertFalse(isValidRange("08:00", "25:00"));
+	}
+
+	@Test
+	public void overnightCutoffIsConfigurable() {
+		System.setProperty("opening.hours.overnight.cutoff", "01:00");
+		try {
+			reload();
+			assertTrue(isValidRange("22:00", "01:00"));
+			assertFalse(isValidRange("22:00", "02:00"));
+		} finally {
+			System.clearProperty("opening.hours.overnight.cutoff");
+			reload();
+		}
+		assertTrue(isValidRange("22:00", "02:00"));
+	}
+
+	private static boolean isValidRange(String open, String close) {
+		return OpeningHours.isValidRange(OpeningHours.toMinuteOfDay(open, false), OpeningHours.toMinuteOfDay(close, true));
+	}
+
+	private static OpeningHours hours(String day, String open, String close) {
+		return OpeningHours.of(new JSONObject()
+				.put("parcelShopId", "PS1")
+				.put("businessHours", new JSONArray().put(new JSONObject()
+						.put("dayOfWeek", day)
+						.put("openTime", open)
+						.put("closeTime", close))));
+	}
+
+}
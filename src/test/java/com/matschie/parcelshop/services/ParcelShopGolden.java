@@ -0,0 +1,126 @@
+package com.matschie.parcelshop.services;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+import static com.matschie.general.utils.TimingRecorder.*;
+
+import java.nio.CharBuffer;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.matschie.api.assertions.CanonicalJson;
+import com.matschie.api.assertions.GoldenIndex;
+import com.matschie.api.assertions.GoldenIndex.Mode;
+import com.matschie.api.design.ResponseAPI;
+import com.matschie.general.utils.CharBufferReader;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+/**
+ * Golden-snapshot check of every parcelshop response, run by {@link ParcelShopService#getParcelShops}:
+ * <pre>
+ * golden.mode=off|verify|record                    # default off
+ * golden.dir=src/test/resources/golden/parcelshop
+ * golden.ignored.fields=distance                   # volatile fields, dropped at any depth
+ * golden.number.scale=6                            # decimal places numbers are compared at
+ * </pre>
+ * The request fingerprint is the base path plus the sorted query parameters; the response document is
+ * the status code and the parsed body. One index is shared per JVM and loaded again when the configuration
+ * reloads; in record mode it is written when it is replaced or the JVM exits, and in verify mode the totals are logged then.
+ */
+public final class ParcelShopGolden {
+
+	private static final Logger LOGGER = Logger.getLogger(ParcelShopGolden.class.getName());
+
+	private static final String DEFAULT_DIR = "src/test/resources/golden/parcelshop";
+	private static final String DEFAULT_IGNORED_FIELDS = "distance";
+	private static final int DEFAULT_NUMBER_SCALE = 6;
+
+	// Null until first used with golden.mode on, and again after a configuration reload
+	private static GoldenIndex index;
+
+	static {
+		onReload(ParcelShopGolden::reset);
+		Runtime.getRuntime().addShutdownHook(new Thread(ParcelShopGolden::reset, "golden-index"));
+	}
+
+	private ParcelShopGolden() {
+	}
+
+	/**
+	 * Compare the response with its golden snapshot, or record it, depending on {@code golden.mode}.
+	 * @param requestBuilder request the response answers
+	 * @param response response to check
+	 * @throws AssertionError with the structural differences if the response does not match its snapshot
+	 */
+	public static void check(final RequestSpecBuilder requestBuilder, final ResponseAPI response) {
+		final GoldenIndex golden = index();
+		if (golden == null) {
+			return;
+		}
+		final QueryableRequestSpecification request = SpecificationQuerier.query(requestBuilder.build());
+		final String fingerprint = "GET " + request.getBasePath() + "?" + new TreeMap<>(request.getQueryParams()).entrySet().stream()
+				.map(param -> param.getKey() + "=" + param.getValue())
+				.collect(Collectors.joining("&"));
+		time(PHASE_VALIDATION, "golden snapshot", () -> golden.check(fingerprint, document(response)));
+	}
+
+	private static Object document(final ResponseAPI response) {
+		final CharBuffer body = response.getBodyChars();
+		int start = body.position();
+		while (start < body.limit() && Character.isWhitespace(body.get(start))) {
+			start++;
+		}
+		Object parsed = JSONObject.NULL;
+		if (start < body.limit()) {
+			final char first = body.get(start);
+			parsed = first == '{' || first == '[' ? new JSONTokener(new CharBufferReader(body)).nextValue() : body.toString().trim();
+		}
+		return new JSONObject(Map.of("status", response.getStatusCode(), "body", parsed));
+	}
+
+	/**
+	 * @return the JVM's golden index, null when {@code golden.mode} is off
+	 */
+	private static synchronized GoldenIndex index() {
+		if (index == null) {
+			final String configuredMode = config("golden.mode");
+			final Mode mode = configuredMode == null || configuredMode.isBlank() ? Mode.OFF
+					: Mode.valueOf(configuredMode.trim().toUpperCase(Locale.ROOT));
+			if (mode == Mode.OFF) {
+				return null;
+			}
+			final String dir = config("golden.dir");
+			final String ignored = config("golden.ignored.fields");
+			final Set<String> ignoredFields = Arrays.stream((ignored == null ? DEFAULT_IGNORED_FIELDS : ignored).split(","))
+					.map(String::trim)
+					.filter(field -> !field.isEmpty())
+					.collect(Collectors.toSet());
+			index = new GoldenIndex(Paths.get(dir == null || dir.isBlank() ? DEFAULT_DIR : dir.trim()), mode,
+					new CanonicalJson(ignoredFields, configInt("golden.number.scale", DEFAULT_NUMBER_SCALE)));
+		}
+		return index;
+	}
+
+	/**
+	 * Write (record mode) and log the current index and drop it, so the next check loads it with the current settings.
+	 */
+	private static synchronized void reset() {
+		if (index != null) {
+			index.save();
+			LOGGER.info("Golden snapshots: " + index);
+			index = null;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.matschie.parcelshop.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.restassured.builder.RequestSpecBuilder;
+
+/**
+ * Immutable description of a parcelshop query: the ordered query parameters to send.
+ * When-steps derive new queries with {@link #with(String, String)}; nothing is sent
+ * until the query is applied to a request and executed.
+ * @param params query parameters in the order they were added (repeated keys allowed)
+ */
+public record ParcelShopQuery(List<Map.Entry<String, String>> params) {
+
+	private static final ParcelShopQuery EMPTY = new ParcelShopQuery(List.of());
+
+	public ParcelShopQuery {
+		params = List.copyOf(params);
+	}
+
+	/**
+	 * @return query without parameters
+	 */
+	public static ParcelShopQuery empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param key parameter name
+	 * @param value parameter value
+	 * @return new query with the parameter appended
+	 */
+	public ParcelShopQuery with(final String key, final String value) {
+		final List<Map.Entry<String, String>> next = new ArrayList<>(params.size() + 1);
+		next.addAll(params);
+		next.add(Map.entry(key, value));
+		return new ParcelShopQuery(next);
+	}
+
+	/**
+	 * Add every parameter to a request.
+	 * @param requestBuilder request to populate
+	 * @return the same request builder
+	 */
+	public RequestSpecBuilder applyTo(final RequestSpecBuilder requestBuilder) {
+		params.forEach(param -> requestBuilder.addQueryParam(param.getKey(), param.getValue()));
+		return requestBuilder;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.matschie.parcelshop.services;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.matschie.data.utils.CsvData;
+import com.matschie.general.utils.GeoIndex;
+
+/**
+ * Spatial index over a reference dataset of known parcelshop coordinates
+ * (classpath {@code data/<dataset>.csv} with rows {@code parcelShopId,latitude,longitude}).
+ * Each dataset is loaded into a {@link GeoIndex} once per JVM and shared by all scenarios,
+ * so nearest-shop lookups stay O(log n) however many responses are checked.
+ */
+public final class ParcelShopReference {
+
+	private static final Logger LOGGER = Logger.getLogger(ParcelShopReference.class.getName());
+
+	private static final String DEFAULT_DATASET = "parcelshop-reference";
+	private static final double KM_PER_MILE = 1.609344;
+
+	private static final Map<String, GeoIndex<String>> INDEXES = new ConcurrentHashMap<>();
+
+	private ParcelShopReference() {
+	}
+
+	/**
+	 * @return index of the configured dataset ({@code geo.reference.dataset}, default 'parcelshop-reference')
+	 * @throws IllegalStateException if the dataset has no rows
+	 */
+	public static GeoIndex<String> get() {
+		final String dataset = config("geo.reference.dataset");
+		return get(dataset == null || dataset.isBlank() ? DEFAULT_DATASET : dataset.trim());
+	}
+
+	/**
+	 * @param dataset dataset name without folder or extension
+	 * @return index of the dataset, built on first use
+	 * @throws IllegalStateException if the dataset has no rows
+	 */
+	public static GeoIndex<String> get(final String dataset) {
+		return INDEXES.computeIfAbsent(dataset, ParcelShopReference::load);
+	}
+
+	/**
+	 * Convert kilometres to the unit the API reports distances in ({@code parcelshop.distance.unit}: miles or km, default miles).
+	 * @param km distance in kilometres
+	 * @return distance in the API's unit
+	 */
+	public static double toApiUnit(final double km) {
+		return "km".equalsIgnoreCase(config("parcelshop.distance.unit")) ? km : km / KM_PER_MILE;
+	}
+
+	private static GeoIndex<String> load(final String dataset) {
+		final long start = System.nanoTime();
+		final List<GeoIndex.Entry<String>> entries;
+		try (Stream<String[]> rows = new CsvData().stream(dataset)) {
+			entries = rows.map(row -> {
+				if (row.length < 3) {
+					throw new IllegalStateException("Invalid row in '" + dataset + "' - expected parcelShopId,latitude,longitude: " + String.join(",", row));
+				}
+				return new GeoIndex.Entry<>(row[0], Double.parseDouble(row[1]), Double.parseDouble(row[2]));
+			}).collect(Collectors.toList());
+		}
+		if (entries.isEmpty()) {
+			throw new IllegalStateException("Reference dataset '" + dataset + "' is empty - export known parcelshop coordinates into data/" + dataset + ".csv");
+		}
+		final GeoIndex<String> index = new GeoIndex<>(entries);
+		LOGGER.info(() -> String.format("Indexed %d reference parcelshops from '%s' in %.1f ms",
+			index.size(), dataset, (System.nanoTime() - start) / 1_000_000.0));
+		return index;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.matschie.parcelshop.services;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Base request for the enterprise parcelshop API (base URI, path, headers and API key),
+ * resolved from configuration and validated once per JVM. Scenarios derive cheap copies;
+ * the shared specification itself is never handed out for mutation.
+ * The template is rebuilt on the next use after a configuration reload.
+ */
+public final class ParcelShopRequestTemplate {
+
+	private static final Logger LOGGER = Logger.getLogger(ParcelShopRequestTemplate.class.getName());
+
+	private static final AtomicReference<RequestSpecification> TEMPLATE = new AtomicReference<>();
+
+	static {
+		onReload(() -> TEMPLATE.set(null));
+	}
+
+	private ParcelShopRequestTemplate() {
+	}
+
+	/**
+	 * Get a copy of the base request, building and validating the shared template on first use.
+	 * The copy may be modified freely; use {@link #derive()} to add to it through a builder.
+	 * @return validated base request, new on every call
+	 * @throws IllegalStateException if a required config key is missing
+	 */
+	public static RequestSpecification get() {
+		return derive().build();
+	}
+
+	/**
+	 * @return new request builder pre-populated from the shared template
+	 * @throws IllegalStateException if a required config key is missing
+	 */
+	public static RequestSpecBuilder derive() {
+		return new RequestSpecBuilder().addRequestSpecification(template());
+	}
+
+	private static RequestSpecification template() {
+		RequestSpecification template = TEMPLATE.get();
+		if (template == null) {
+			// Concurrent first callers may both build; the result is identical so the race is harmless
+			template = build();
+			TEMPLATE.compareAndSet(null, template);
+		}
+		return template;
+	}
+
+	private static RequestSpecification build() {
+		final String baseUri = config("parcelshop.base.uri");
+		final String basePath = config("parcelshop.base.path");
+		final String apiKey = config("parcelshop.api.key");
+		if (baseUri == null || baseUri.isEmpty()) {
+			throw new IllegalStateException("Base URI is not set! Check config.properties and property loading in pipeline.");
+		}
+		if (basePath == null || basePath.isEmpty()) {
+			throw new IllegalStateException("Base Path is not set! Check config.properties and property loading in pipeline.");
+		}
+		if (apiKey == null || apiKey.isEmpty()) {
+			throw new IllegalStateException("API Key is not set! Check config.properties and property loading in pipeline.");
+		}
+		LOGGER.info("ParcelShop request template: " + baseUri + basePath + " (API key <present>)");
+		return new RequestSpecBuilder()
+				.setBaseUri(baseUri)
+				.setBasePath(basePath)
+				.addHeader("Content-Type", "application/json")
+				.addHeader("apikey", apiKey)
+				.build();
+	}
+
+}
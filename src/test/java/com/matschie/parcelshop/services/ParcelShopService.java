@@ -2,12 +2,43 @@ package com.matschie.parcelshop.services;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static com.matschie.general.utils.PropertiesHandlers.*;
+import static com.matschie.general.utils.TimingRecorder.*;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import com.matschie.api.assertions.JsonAssertion;
+import com.matschie.api.assertions.JsonAssertionEngine;
+import com.matschie.api.assertions.JsonAssertionEngine.Violation;
 import com.matschie.api.design.ResponseAPI;
+import com.matschie.api.rest.assured.api.client.HttpLatency;
+import com.matschie.api.rest.assured.api.client.PooledBody;
 import com.matschie.api.rest.assured.api.client.RestAssuredApiClientImpl;
+import com.matschie.general.utils.CharBufferReader;
+import com.matschie.general.utils.GeoIndex;
+import com.matschie.general.utils.RateLimiter;
 
 import io.restassured.builder.RequestSpecBuilder;
 
@@ -22,28 +53,53 @@ public class ParcelShopService {
 	private static final String ERROR_NULL_REQUEST = "RequestSpecBuilder cannot be null";
 	private static final String ERROR_NULL_RESPONSE = "Response is null";
 	private static final String ERROR_NULL_PREFIX = "Postcode prefix cannot be null or empty";
+	private static final String ERROR_INVALID_AREA = "Postcode area must be one or more letters: ";
 	private static final String ERROR_EMPTY_RESPONSE = "Response body is empty - expected at least one parcelshop";
 	
 	// JSON field names
 	private static final String FIELD_PARCEL_SHOPS = "parcelShops";
 	private static final String FIELD_DATA = "data";
 	private static final String FIELD_RESULTS = "results";
-	private static final String FIELD_ADDRESS = "address";
-	private static final String FIELD_POST_CODE = "postCode";
+	
+	// Compiled JSON paths, relative to the parcelshops array
+	private static final String PATH_POST_CODE = "$[*].address.postCode";
+	private static final String PATH_LATITUDE = "$[*].latitude";
+	private static final String PATH_LONGITUDE = "$[*].longitude";
+	private static final String PATH_BUSINESS_HOURS = "$[*].businessHours";
+	private static final String PATH_DISTANCE = "$[*].distance";
+	
+	// UK bounding box, including Northern Ireland and Shetland
+	private static final double MIN_LATITUDE = 49.8;
+	private static final double MAX_LATITUDE = 60.9;
+	private static final double MIN_LONGITUDE = -8.7;
+	private static final double MAX_LONGITUDE = 1.8;
+	
+	// Parallel validation tuning
+	private static final int DEFAULT_PARALLEL_THRESHOLD = 5_000;
+	private static final int DEFAULT_CHUNK_SIZE = 1_024;
+	
+	// Query parameters
+	private static final String PARAM_POSTCODE = "postcode";
+	private static final String PARAM_CITY = "city";
+	private static final int HTTP_OK = 200;
 	
 	private final RestAssuredApiClientImpl apiClient = new RestAssuredApiClientImpl();
 	
 	/**
 	 * Execute GET request to retrieve parcelshops.
+	 * With {@code golden.mode} set, the response is also checked against (or recorded as) its golden snapshot.
 	 * @param requestBuilder configured request specification
 	 * @return ResponseAPI object containing the API response
 	 * @throws IllegalArgumentException if requestBuilder is null
+	 * @throws AssertionError if the response differs from its golden snapshot
 	 */
 	public ResponseAPI getParcelShops(final RequestSpecBuilder requestBuilder) {
 		if (requestBuilder == null) {
 			throw new IllegalArgumentException(ERROR_NULL_REQUEST);
 		}
-		return apiClient.get(requestBuilder, "");
+		final ResponseAPI response = apiClient.get(requestBuilder, "");
+		ParcelShopGolden.check(requestBuilder, response);
+		return response;
 	}
 	
 	/**
@@ -59,29 +115,31 @@ public class ParcelShopService {
 			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
 		}
 		
-		assertThat(
-			"HTTP status code mismatch", 
-			response.getStatusCode(), 
-			equalTo(statusCode)
-		);
-		
-		// Status message can be empty for 200 responses
-		if (statusLine != null && !statusLine.isEmpty() && 
-			response.getStatusMessage() != null && !response.getStatusMessage().isEmpty()) {
-			assertThat(
-				"HTTP status message mismatch", 
-				response.getStatusMessage(), 
-				equalTo(statusLine)
-			);
-		}
-		
-		if (contentType != null && !contentType.isEmpty()) {
+		time(PHASE_VALIDATION, "status/content-type", () -> {
 			assertThat(
-				"Content-Type mismatch", 
-				response.getContentType(), 
-				containsString(contentType)
+				"HTTP status code mismatch", 
+				response.getStatusCode(), 
+				equalTo(statusCode)
 			);
-		}
+			
+			// Status message can be empty for 200 responses
+			if (statusLine != null && !statusLine.isEmpty() && 
+				response.getStatusMessage() != null && !response.getStatusMessage().isEmpty()) {
+				assertThat(
+					"HTTP status message mismatch", 
+					response.getStatusMessage(), 
+					equalTo(statusLine)
+				);
+			}
+			
+			if (contentType != null && !contentType.isEmpty()) {
+				assertThat(
+					"Content-Type mismatch", 
+					response.getContentType(), 
+					containsString(contentType)
+				);
+			}
+		});
 	}
 	
 	/**
@@ -95,30 +153,14 @@ public class ParcelShopService {
 			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
 		}
 		
-		final String responseBody = response.getBody();
+		final CharBuffer responseBody = response.getBodyChars();
 		
 		// Handle empty response
-		if (responseBody == null || responseBody.trim().isEmpty()) {
+		if (isBlank(responseBody)) {
 			return 0;
 		}
 		
-		// API returns a JSON array directly
-		if (responseBody.trim().startsWith("[")) {
-			final JSONArray jsonArray = new JSONArray(responseBody);
-			return jsonArray.length();
-		}
-		
-		// Fallback: Handle if response is a JSON object with array inside
-		final JSONObject jsonObject = new JSONObject(responseBody);
-		if (jsonObject.has(FIELD_PARCEL_SHOPS)) {
-			return jsonObject.getJSONArray(FIELD_PARCEL_SHOPS).length();
-		} else if (jsonObject.has(FIELD_DATA)) {
-			return jsonObject.getJSONArray(FIELD_DATA).length();
-		} else if (jsonObject.has(FIELD_RESULTS)) {
-			return jsonObject.getJSONArray(FIELD_RESULTS).length();
-		}
-		
-		return 0;
+		return getParcelShopsArray(responseBody).length();
 	}
 	
 	/**
@@ -137,10 +179,36 @@ public class ParcelShopService {
 			throw new IllegalArgumentException(ERROR_NULL_PREFIX);
 		}
 		
-		final String responseBody = response.getBody();
+		validateAllPostCodes(response, "postCode startsWith '" + prefix + "'", JsonAssertion.that(PATH_POST_CODE).startsWith(prefix));
+	}
+	
+	/**
+	 * Validate that ALL parcelshops have postcodes in the given postcode area: the area letters followed
+	 * by the district digit, so area 'B' accepts 'B33 8TH' but not 'BA1 1AA'.
+	 * @param response the API response to validate
+	 * @param area postcode area (e.g. "B", "EH")
+	 * @throws IllegalArgumentException if response is null or area is not one or more letters
+	 * @throws AssertionError if any postcode is outside the area
+	 */
+	public void validateAllPostCodesInArea(final ResponseAPI response, final String area) {
+		if (response == null) {
+			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
+		}
+		
+		if (area == null || !area.trim().matches("[A-Za-z]+")) {
+			throw new IllegalArgumentException(ERROR_INVALID_AREA + area);
+		}
+		
+		final String letters = area.trim().toUpperCase(Locale.ROOT);
+		validateAllPostCodes(response, "postCode in area '" + letters + "'",
+			JsonAssertion.that(PATH_POST_CODE).matches(letters + "[0-9].*"));
+	}
+	
+	private void validateAllPostCodes(final ResponseAPI response, final String description, final JsonAssertion assertion) {
+		final CharBuffer responseBody = response.getBodyChars();
 		
 		// Handle empty response
-		if (responseBody == null || responseBody.trim().isEmpty()) {
+		if (isBlank(responseBody)) {
 			throw new AssertionError(ERROR_EMPTY_RESPONSE);
 		}
 		
@@ -152,32 +220,423 @@ public class ParcelShopService {
 			greaterThan(0)
 		);
 		
-		// Validate that ALL postcodes start with the prefix - fail fast on first mismatch
+		// Validate that ALL postcodes match - fail fast on first mismatch
+		final List<Violation> violations = time(PHASE_VALIDATION, description,
+			() -> JsonAssertionEngine.evaluate(parcelShops, List.of(assertion), 1));
+		if (!violations.isEmpty()) {
+			throw new AssertionError(violations.get(0).message());
+		}
+	}
+	
+	/**
+	 * Evaluate declarative assertions over the parcelshops array in a single pass and report
+	 * every violation. Arrays of {@code validation.parallel.threshold} elements or more are split
+	 * into {@code validation.chunk.size} chunks and validated on the common fork-join pool.
+	 * Paths are relative to the array, e.g. {@code $[*].distance}.
+	 * @param response the API response to validate
+	 * @param assertions assertions to evaluate
+	 * @throws IllegalArgumentException if response is null
+	 * @throws AssertionError listing every violation, if any
+	 */
+	public void validate(final ResponseAPI response, final JsonAssertion... assertions) {
+		if (response == null) {
+			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
+		}
+		
+		final CharBuffer responseBody = response.getBodyChars();
+		
+		// Handle empty response
+		if (isBlank(responseBody)) {
+			throw new AssertionError(ERROR_EMPTY_RESPONSE);
+		}
+		
+		final JSONArray parcelShops = getParcelShopsArray(responseBody);
+		final List<Violation> violations = time(PHASE_VALIDATION, Arrays.toString(assertions),
+			() -> evaluate(parcelShops, Arrays.asList(assertions)));
+		if (!violations.isEmpty()) {
+			throw new AssertionError(violations.size() + " violation(s):\n" + violations.stream()
+				.map(Violation::message)
+				.collect(Collectors.joining("\n")));
+		}
+	}
+	
+	/**
+	 * Validate every parcelshop against the standard sanity checks (see {@link #sanityAssertions(String)})
+	 * and report all violations, with their indices, in one assertion error.
+	 * @param response the API response to validate
+	 * @param prefix expected postcode prefix (e.g., "EH")
+	 * @throws IllegalArgumentException if response is null or prefix is null or empty
+	 * @throws AssertionError listing every violation, if any
+	 */
+	public void validateParcelShopSanity(final ResponseAPI response, final String prefix) {
+		if (prefix == null || prefix.trim().isEmpty()) {
+			throw new IllegalArgumentException(ERROR_NULL_PREFIX);
+		}
+		validate(response, sanityAssertions(prefix).toArray(new JsonAssertion[0]));
+	}
+	
+	/**
+	 * Standard per-shop checks: postcode prefix, latitude/longitude within the UK,
+	 * opening before closing on every day (or closing past midnight by the overnight cutoff),
+	 * and results ordered by distance.
+	 * @param prefix expected postcode prefix
+	 * @return assertions relative to the parcelshops array
+	 */
+	public static List<JsonAssertion> sanityAssertions(final String prefix) {
+		final List<JsonAssertion> assertions = new ArrayList<>();
+		assertions.add(JsonAssertion.that(PATH_POST_CODE).startsWith(prefix));
+		assertions.addAll(contractAssertions());
+		return assertions;
+	}
+	
+	/**
+	 * Per-shop checks that hold whatever was queried: latitude/longitude within the UK,
+	 * opening before closing on every day (or closing past midnight by the overnight cutoff),
+	 * and results ordered by distance.
+	 * @return assertions relative to the parcelshops array
+	 */
+	public static List<JsonAssertion> contractAssertions() {
+		return List.of(
+			JsonAssertion.that(PATH_LATITUDE).isBetween(MIN_LATITUDE, MAX_LATITUDE),
+			JsonAssertion.that(PATH_LONGITUDE).isBetween(MIN_LONGITUDE, MAX_LONGITUDE),
+			JsonAssertion.that(PATH_BUSINESS_HOURS).satisfies("has a day with unparseable or inverted opening and closing times",
+				ParcelShopService::hasSaneBusinessHours),
+			JsonAssertion.that(PATH_DISTANCE).isSortedAscending()
+		);
+	}
+	
+	/**
+	 * Validate the contract that must hold for any query, valid or not: the server never answers 5xx,
+	 * and a 200 is JSON holding at most maxCount parcelshops that pass {@link #contractAssertions()}.
+	 * Rejecting a query (4xx) or finding nothing (204) is allowed.
+	 * @param response the API response to validate
+	 * @param maxCount most parcelshops the query allows (Integer.MAX_VALUE when unbounded)
+	 * @throws IllegalArgumentException if response is null
+	 * @throws AssertionError describing the first broken rule
+	 */
+	public void validateContract(final ResponseAPI response, final int maxCount) {
+		if (response == null) {
+			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
+		}
+		assertThat(
+			"Server error for a client-side input",
+			response.getStatusCode(),
+			lessThan(500)
+		);
+		if (response.getStatusCode() != HTTP_OK) {
+			return;
+		}
+		validateResponse(response, HTTP_OK, "", "application/json");
+		final int count = getParcelShopCount(response);
+		assertThat(
+			"More parcelshops than the requested count",
+			count,
+			lessThanOrEqualTo(maxCount)
+		);
+		if (count > 0) {
+			validate(response, contractAssertions().toArray(new JsonAssertion[0]));
+		}
+	}
+	
+	/**
+	 * Validate that the response holds the N reference parcelshops nearest to a location (N = response size)
+	 * and that every reported distance matches the great-circle distance within a tolerance.
+	 * The true neighbours come from the shared {@link ParcelShopReference} spatial index, one O(log n) lookup per response.
+	 * Ties are tolerated: a shop counts as missing only if it is nearer than the farthest returned shop by more than the tolerance.
+	 * @param response the API response to validate
+	 * @param latitude query centroid latitude
+	 * @param longitude query centroid longitude
+	 * @param tolerance allowed distance error, in the API's distance unit
+	 * @throws IllegalArgumentException if response is null
+	 * @throws AssertionError listing every violation, if any
+	 */
+	public void validateNearestTo(final ResponseAPI response, final double latitude, final double longitude,
+			final double tolerance) {
+		if (response == null) {
+			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
+		}
+
+		final CharBuffer responseBody = response.getBodyChars();
+
+		// Handle empty response
+		if (isBlank(responseBody)) {
+			throw new AssertionError(ERROR_EMPTY_RESPONSE);
+		}
+
+		final JSONArray parcelShops = getParcelShopsArray(responseBody);
+		final GeoIndex<String> reference = ParcelShopReference.get();
+		final List<String> violations = time(PHASE_VALIDATION, "nearest to " + latitude + "," + longitude,
+			() -> nearestViolations(parcelShops, reference, latitude, longitude, tolerance));
+		if (!violations.isEmpty()) {
+			throw new AssertionError(violations.size() + " violation(s):\n" + String.join("\n", violations));
+		}
+	}
+
+	private static List<String> nearestViolations(final JSONArray parcelShops, final GeoIndex<String> reference,
+			final double latitude, final double longitude, final double tolerance) {
+		final List<String> violations = new ArrayList<>();
+		final Set<String> returned = new HashSet<>();
+		double farthest = 0;
 		for (int i = 0; i < parcelShops.length(); i++) {
-			final JSONObject parcelShop = parcelShops.getJSONObject(i);
-			final String postCode = parcelShop.getJSONObject(FIELD_ADDRESS).getString(FIELD_POST_CODE);
-			if (!postCode.startsWith(prefix)) {
-				throw new AssertionError(
-					"Postcode at index " + i + " ('" + postCode + "') does not start with '" + prefix + "'"
-				);
+			final JSONObject shop = parcelShops.optJSONObject(i);
+			if (shop == null || !shop.has("latitude") || !shop.has("longitude")) {
+				violations.add("$[" + i + "] has no coordinates");
+				continue;
+			}
+			returned.add(shop.optString("parcelShopId"));
+			final double actual = ParcelShopReference.toApiUnit(
+				GeoIndex.haversineKm(latitude, longitude, shop.getDouble("latitude"), shop.getDouble("longitude")));
+			farthest = Math.max(farthest, actual);
+			final double reported = shop.optDouble("distance");
+			if (Double.isNaN(reported)) {
+				violations.add("$[" + i + "].distance is missing");
+			} else if (Math.abs(reported - actual) > tolerance) {
+				violations.add(String.format("$[%d].distance ('%s') differs from the computed %.3f by more than %s",
+					i, reported, actual, tolerance));
+			}
+		}
+
+		for (GeoIndex.Neighbour<String> nearest : reference.nearest(latitude, longitude, parcelShops.length())) {
+			final double distance = ParcelShopReference.toApiUnit(nearest.distanceKm());
+			if (!returned.contains(nearest.value()) && distance < farthest - tolerance) {
+				violations.add(String.format("reference parcelshop %s at %.3f is missing although results reach %.3f",
+					nearest.value(), distance, farthest));
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Index the business hours of every parcelshop in the response, parsing each time string once.
+	 * @param response the API response
+	 * @return one index per parcelshop, in response order (empty list for an empty body)
+	 * @throws IllegalArgumentException if response is null
+	 */
+	public List<OpeningHours> getOpeningHours(final ResponseAPI response) {
+		if (response == null) {
+			throw new IllegalArgumentException(ERROR_NULL_RESPONSE);
+		}
+		
+		final CharBuffer responseBody = response.getBodyChars();
+		
+		// Handle empty response
+		if (isBlank(responseBody)) {
+			return List.of();
+		}
+		
+		final JSONArray parcelShops = getParcelShopsArray(responseBody);
+		return time(PHASE_JSON_PARSE, "business hours index", () -> {
+			final List<OpeningHours> hours = new ArrayList<>(parcelShops.length());
+			for (int i = 0; i < parcelShops.length(); i++) {
+				final JSONObject shop = parcelShops.optJSONObject(i);
+				hours.add(OpeningHours.of(shop == null ? new JSONObject() : shop));
+			}
+			return hours;
+		});
+	}
+	
+	/**
+	 * Validate that every parcelshop satisfies an opening-hours condition and report all that do not.
+	 * @param openingHours indexed business hours (see {@link #getOpeningHours(ResponseAPI)})
+	 * @param description condition, e.g. "open on SUNDAY"
+	 * @param condition condition on one shop's hours
+	 * @throws AssertionError listing every failing parcelshop, if any
+	 */
+	public void validateOpeningHours(final List<OpeningHours> openingHours, final String description,
+			final Predicate<OpeningHours> condition) {
+		assertThat("Response should contain at least one parcelshop", openingHours.size(), greaterThan(0));
+		final List<String> failures = time(PHASE_VALIDATION, description, () -> {
+			final List<String> failing = new ArrayList<>();
+			for (int i = 0; i < openingHours.size(); i++) {
+				if (!condition.test(openingHours.get(i))) {
+					failing.add("$[" + i + "] (" + openingHours.get(i).getParcelShopId() + ") is not " + description);
+				}
+			}
+			return failing;
+		});
+		if (!failures.isEmpty()) {
+			throw new AssertionError(failures.size() + " violation(s):\n" + String.join("\n", failures));
+		}
+	}
+	
+	/**
+	 * @param openingHours indexed business hours (see {@link #getOpeningHours(ResponseAPI)})
+	 * @param condition condition on one shop's hours
+	 * @return parcelshops satisfying the condition, in response order
+	 */
+	public List<OpeningHours> filterByOpeningHours(final List<OpeningHours> openingHours,
+			final Predicate<OpeningHours> condition) {
+		return openingHours.stream().filter(condition).collect(Collectors.toList());
+	}
+	
+	private List<Violation> evaluate(final JSONArray parcelShops, final List<JsonAssertion> assertions) {
+		if (parcelShops.length() >= configInt("validation.parallel.threshold", DEFAULT_PARALLEL_THRESHOLD)) {
+			return JsonAssertionEngine.evaluateParallel(parcelShops, assertions, ForkJoinPool.commonPool(),
+				configInt("validation.chunk.size", DEFAULT_CHUNK_SIZE));
+		}
+		return JsonAssertionEngine.evaluate(parcelShops, assertions);
+	}
+	
+	private static boolean hasSaneBusinessHours(final Object businessHours) {
+		if (!(businessHours instanceof JSONArray days)) {
+			return false;
+		}
+		for (int i = 0; i < days.length(); i++) {
+			final JSONObject day = days.optJSONObject(i);
+			if (day == null) {
+				return false;
+			}
+			final String open = day.optString("openTime", "");
+			final String close = day.optString("closeTime", "");
+			if (open.isEmpty() || close.isEmpty()) {
+				// Closed that day
+				continue;
+			}
+			// Same rule as the opening-hours index: closing before opening runs past midnight, up to the cutoff
+			if (!OpeningHours.isValidRange(OpeningHours.toMinuteOfDay(open, false), OpeningHours.toMinuteOfDay(close, true))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Query every postcode area of a lazily streamed dataset and validate that all returned
+	 * parcelshops have postcodes in that area. Rows are pulled from the stream only as worker
+	 * slots free up, requests are spread by the rate limiter, and every failure is collected
+	 * instead of stopping at the first one.
+	 * @param requestFactory supplies a fresh, fully configured request (base URI, headers, extra params) per area
+	 * @param areas rows of {area, district, town}, e.g. {"EH", "EH1", "Edinburgh"}
+	 * @param concurrency number of parallel requests
+	 * @param rateLimiter limiter shared by all workers
+	 * @return one message per failing area, sorted; empty when every area passes
+	 * @throws IllegalArgumentException if requestFactory or areas is null
+	 */
+	public List<String> sweepPostCodeAreas(final Supplier<RequestSpecBuilder> requestFactory, final Stream<String[]> areas,
+			final int concurrency, final RateLimiter rateLimiter) {
+		if (requestFactory == null || areas == null) {
+			throw new IllegalArgumentException(ERROR_NULL_REQUEST);
+		}
+		final int workers = Math.max(1, concurrency);
+		final Queue<String> failures = new ConcurrentLinkedQueue<>();
+		final Semaphore inFlight = new Semaphore(workers);
+		final ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			final Iterator<String[]> rows = areas.iterator();
+			while (rows.hasNext()) {
+				final String[] row = rows.next();
+				inFlight.acquire();
+				executor.execute(() -> {
+					try {
+						rateLimiter.acquire();
+						sweepPostCodeArea(requestFactory.get(), row[0], row[1], row[2]);
+					} catch (AssertionError | RuntimeException e) {
+						failures.add(row[0] + " (" + row[1] + ", " + row[2] + "): " + e.getMessage());
+					} finally {
+						// Worker threads outlive a single step; drop their timing phases and pooled bodies
+						drain();
+						PooledBody.releaseAll();
+						inFlight.release();
+					}
+				});
+			}
+			executor.shutdown();
+			if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+				throw new IllegalStateException("Postcode sweep did not finish within 1 hour");
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Postcode sweep interrupted", e);
+		} finally {
+			executor.shutdownNow();
 		}
+		final List<String> sorted = new ArrayList<>(failures);
+		sorted.sort(null);
+		return sorted;
 	}
 	
+	private void sweepPostCodeArea(final RequestSpecBuilder requestBuilder, final String area, final String district,
+			final String town) {
+		requestBuilder.addQueryParam(PARAM_POSTCODE, district);
+		requestBuilder.addQueryParam(PARAM_CITY, town);
+		final ResponseAPI response = getParcelShops(requestBuilder);
+		validateResponse(response, HTTP_OK, "", "application/json");
+		validateAllPostCodesInArea(response, area);
+	}
+
+	/**
+	 * Send the same request repeatedly from parallel workers and collect the latency distribution.
+	 * The latency of a call is the HTTP exchange as timed by the client's {@code TimingFilter}, without
+	 * logging, parsing or golden checks; a call whose exchange never completed counts its wall time.
+	 * A call is counted as an error when it throws or does not answer 200.
+	 * @param requestFactory supplies a fresh, fully configured request per call
+	 * @param requests total number of requests
+	 * @param concurrency number of parallel requests
+	 * @return latency and errors of this run only
+	 * @throws IllegalArgumentException if requestFactory is null
+	 * @throws IllegalStateException if the run is interrupted or does not finish within an hour
+	 */
+	public HttpLatency sendRequests(final Supplier<RequestSpecBuilder> requestFactory, final int requests,
+			final int concurrency) {
+		if (requestFactory == null) {
+			throw new IllegalArgumentException(ERROR_NULL_REQUEST);
+		}
+		final HttpLatency latency = new HttpLatency();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, requests)));
+		try {
+			for (int i = 0; i < requests; i++) {
+				executor.execute(() -> {
+					final long start = System.nanoTime();
+					boolean failed = true;
+					try {
+						failed = getParcelShops(requestFactory.get()).getStatusCode() != HTTP_OK;
+					} catch (AssertionError | RuntimeException e) {
+						// Counted as an error
+					} finally {
+						// Worker threads outlive a single step; drain their timing phases and drop pooled bodies
+						final long exchange = drain().stream()
+								.filter(phase -> PHASE_HTTP.equals(phase.name()))
+								.mapToLong(Phase::nanos)
+								.sum();
+						latency.record(exchange > 0 ? exchange : System.nanoTime() - start, failed);
+						PooledBody.releaseAll();
+					}
+				});
+			}
+			executor.shutdown();
+			if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+				throw new IllegalStateException("Load run did not finish within 1 hour");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Load run interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		return latency;
+	}
+
 	/**
 	 * Extract parcelshops array from response body.
 	 * Handles both direct JSON array and object-wrapped array formats.
+	 * Parses straight from the body view, without building a String of it.
 	 * @param responseBody raw JSON response
 	 * @return JSONArray of parcelshops (empty array if not found)
 	 */
-	private JSONArray getParcelShopsArray(final String responseBody) {
+	private JSONArray getParcelShopsArray(final CharBuffer responseBody) {
+		return time(PHASE_JSON_PARSE, "parcelshops array", () -> parseParcelShopsArray(responseBody));
+	}
+	
+	private JSONArray parseParcelShopsArray(final CharBuffer responseBody) {
+		final JSONTokener tokener = new JSONTokener(new CharBufferReader(responseBody));
+		
 		// Handle if response is a JSON array
-		if (responseBody.trim().startsWith("[")) {
-			return new JSONArray(responseBody);
+		if (firstNonWhitespace(responseBody) == '[') {
+			return new JSONArray(tokener);
 		}
 		
 		// Handle if response is a JSON object with array inside
-		final JSONObject jsonObject = new JSONObject(responseBody);
+		final JSONObject jsonObject = new JSONObject(tokener);
 		if (jsonObject.has(FIELD_PARCEL_SHOPS)) {
 			return jsonObject.getJSONArray(FIELD_PARCEL_SHOPS);
 		} else if (jsonObject.has(FIELD_DATA)) {
@@ -188,5 +647,18 @@ public class ParcelShopService {
 		
 		return new JSONArray();
 	}
+	
+	private static boolean isBlank(final CharBuffer body) {
+		return body == null || firstNonWhitespace(body) < 0;
+	}
+	
+	private static int firstNonWhitespace(final CharBuffer body) {
+		for (int i = body.position(); i < body.limit(); i++) {
+			if (!Character.isWhitespace(body.get(i))) {
+				return body.get(i);
+			}
+		}
+		return -1;
+	}
 
 }
@@ -0,0 +1,103 @@
+package com.matschie.parcelshop.sharding;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONObject;
+
+/**
+ * Historical scenario durations, keyed by feature path and pickle line.
+ * Stored as a flat JSON object ({@code {"features/ParcelShop.feature:4": 812, ...}}) in milliseconds,
+ * sorted by key so the file diffs cleanly and every shard reads identical input.
+ */
+public final class ScenarioTimings {
+
+	private static final String TIMINGS_FILE_KEY = "shard.timings.file";
+	private static final String DEFAULT_TIMINGS_FILE = "target/scenario-timings.json";
+
+	private ScenarioTimings() {
+	}
+
+	/**
+	 * @return timings file that shards read from and unsharded runs write to
+	 */
+	public static Path timingsFile() {
+		final String configured = config(TIMINGS_FILE_KEY);
+		return Paths.get(configured != null && !configured.isBlank() ? configured : DEFAULT_TIMINGS_FILE);
+	}
+
+	/**
+	 * File a shard writes its own timings to, next to the shared timings file,
+	 * so concurrent shards never write the same file.
+	 * @param shard shard being run
+	 * @return per-shard output file, or the shared file when not sharded
+	 */
+	public static Path outputFile(ShardPlanner.Shard shard) {
+		final Path shared = timingsFile();
+		if (shard.isWholeSuite()) {
+			return shared;
+		}
+		final String name = shared.getFileName().toString().replaceFirst("\\.json$", "");
+		return shared.resolveSibling(name + ".shard-" + shard.index() + "-of-" + shard.total() + ".json");
+	}
+
+	/**
+	 * Build a machine-independent scenario key.
+	 * @param uri feature file URI
+	 * @param line pickle line (the example row for scenario outlines)
+	 * @return key such as "src/test/java/com/matschie/parcelshop/features/ParcelShop.feature:4"
+	 */
+	public static String key(URI uri, int line) {
+		String path = uri.getSchemeSpecificPart();
+		final String workingDir = Paths.get("").toAbsolutePath().toString().replace('\\', '/') + "/";
+		if (path.startsWith(workingDir)) {
+			path = path.substring(workingDir.length());
+		}
+		return path + ":" + line;
+	}
+
+	/**
+	 * Load timings, returning an empty map when the file does not exist.
+	 * @param file timings file
+	 * @return scenario key to duration in milliseconds
+	 */
+	public static Map<String, Long> load(Path file) {
+		final Map<String, Long> timings = new TreeMap<>();
+		if (!Files.isRegularFile(file)) {
+			return timings;
+		}
+		try {
+			final JSONObject json = new JSONObject(Files.readString(file, StandardCharsets.UTF_8));
+			json.keySet().forEach(key -> timings.put(key, json.getLong(key)));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read scenario timings '" + file + "'", e);
+		}
+		return timings;
+	}
+
+	/**
+	 * Write timings, sorted by key.
+	 * @param file timings file
+	 * @param timings scenario key to duration in milliseconds
+	 */
+	public static void save(Path file, Map<String, Long> timings) {
+		try {
+			if (file.toAbsolutePath().getParent() != null) {
+				Files.createDirectories(file.toAbsolutePath().getParent());
+			}
+			Files.writeString(file, new JSONObject(new TreeMap<>(timings)).toString(2), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write scenario timings '" + file + "'", e);
+		}
+	}
+
+}
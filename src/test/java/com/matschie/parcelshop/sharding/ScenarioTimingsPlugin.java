@@ -0,0 +1,45 @@
+package com.matschie.parcelshop.sharding;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+
+/**
+ * Cucumber plugin that records each scenario's duration and, at the end of the run,
+ * merges them into the timings file used by {@link ShardPlanner} to balance the next run.
+ * Sharded runs write a per-shard file instead, combined afterwards by {@link ShardResultMerger}.
+ */
+public class ScenarioTimingsPlugin implements ConcurrentEventListener {
+
+	private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+		publisher.registerHandlerFor(TestRunFinished.class, this::handleTestRunFinished);
+	}
+
+	private void handleTestCaseFinished(TestCaseFinished event) {
+		TestCase testCase = event.getTestCase();
+		durations.put(ScenarioTimings.key(testCase.getUri(), testCase.getLocation().getLine()),
+				event.getResult().getDuration().toMillis());
+	}
+
+	private void handleTestRunFinished(TestRunFinished event) {
+		if (durations.isEmpty()) {
+			return;
+		}
+		// A shard writes only its own scenarios; ShardResultMerger folds them into the shared history
+		Path output = ScenarioTimings.outputFile(ShardPlanner.configuredShard());
+		Map<String, Long> timings = ScenarioTimings.load(output);
+		timings.putAll(durations);
+		ScenarioTimings.save(output, timings);
+	}
+
+}
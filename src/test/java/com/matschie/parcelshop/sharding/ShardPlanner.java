@@ -0,0 +1,139 @@
+package com.matschie.parcelshop.sharding;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+/**
+ * Deterministically splits the Cucumber pickles of a run into N shards balanced by
+ * historical duration. Every shard computes the same plan from the same pickles and
+ * timings file, so no coordination between JVMs or CI runners is needed.
+ */
+public final class ShardPlanner {
+
+	private static final Logger LOGGER = Logger.getLogger(ShardPlanner.class.getName());
+	private static final String SHARD_KEY = "shard";
+	private static final long DEFAULT_DURATION_MILLIS = 1_000;
+
+	/**
+	 * A 1-based slice of the suite, parsed from {@code shard=i/N}.
+	 * @param index this shard, 1..total
+	 * @param total number of shards
+	 */
+	public record Shard(int index, int total) {
+
+		public static final Shard WHOLE_SUITE = new Shard(1, 1);
+
+		public Shard {
+			if (total < 1 || index < 1 || index > total) {
+				throw new IllegalArgumentException("Invalid shard " + index + "/" + total + " - expected i/N with 1 <= i <= N");
+			}
+		}
+
+		/**
+		 * @param spec shard specification such as "2/4"; null or blank means the whole suite
+		 * @return parsed shard
+		 */
+		public static Shard parse(String spec) {
+			if (spec == null || spec.isBlank()) {
+				return WHOLE_SUITE;
+			}
+			final String[] parts = spec.trim().split("/");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid shard '" + spec + "' - expected i/N, e.g. 2/4");
+			}
+			return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+		}
+
+		public boolean isWholeSuite() {
+			return total == 1;
+		}
+	}
+
+	private ShardPlanner() {
+	}
+
+	/**
+	 * @return shard configured via {@code -Dshard=i/N} (or env {@code SHARD}), whole suite if unset
+	 */
+	public static Shard configuredShard() {
+		return Shard.parse(config(SHARD_KEY));
+	}
+
+	/**
+	 * Keep only the data-provider rows of the configured shard.
+	 * @param scenarios rows from {@code AbstractTestNGCucumberTests.scenarios()}, each {PickleWrapper, FeatureWrapper}
+	 * @return rows assigned to this shard, in their original order
+	 */
+	public static Object[][] select(Object[][] scenarios) {
+		final Shard shard = configuredShard();
+		if (shard.isWholeSuite()) {
+			return scenarios;
+		}
+		final Map<String, Long> timings = ScenarioTimings.load(ScenarioTimings.timingsFile());
+		final List<String> keys = new ArrayList<>(scenarios.length);
+		for (Object[] row : scenarios) {
+			final Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+			keys.add(ScenarioTimings.key(pickle.getUri(), pickle.getLine()));
+		}
+		final int[] assignment = assign(keys, timings, shard.total());
+
+		final List<Object[]> selected = new ArrayList<>();
+		long estimatedMillis = 0;
+		for (int i = 0; i < scenarios.length; i++) {
+			if (assignment[i] == shard.index() - 1) {
+				selected.add(scenarios[i]);
+				estimatedMillis += timings.getOrDefault(keys.get(i), DEFAULT_DURATION_MILLIS);
+			}
+		}
+		LOGGER.info("Shard %d/%d: running %d of %d scenarios (estimated %.1f s)".formatted(
+				shard.index(), shard.total(), selected.size(), scenarios.length, estimatedMillis / 1000.0));
+		return selected.toArray(new Object[0][]);
+	}
+
+	/**
+	 * Longest-processing-time-first assignment: scenarios sorted by duration (desc) then key,
+	 * each placed on the currently lightest shard (lowest index on ties).
+	 * Scenarios without history are estimated at the mean of the known ones.
+	 * @param keys scenario keys
+	 * @param timings historical durations in milliseconds
+	 * @param shards number of shards
+	 * @return zero-based shard per key, aligned with keys
+	 */
+	static int[] assign(List<String> keys, Map<String, Long> timings, int shards) {
+		final long fallback = (long) keys.stream()
+				.filter(timings::containsKey)
+				.mapToLong(timings::get)
+				.average()
+				.orElse(DEFAULT_DURATION_MILLIS);
+
+		final List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++) {
+			order.add(i);
+		}
+		order.sort(Comparator.<Integer>comparingLong(i -> timings.getOrDefault(keys.get(i), fallback)).reversed()
+				.thenComparing(keys::get));
+
+		final long[] load = new long[shards];
+		final int[] assignment = new int[keys.size()];
+		for (int i : order) {
+			int lightest = 0;
+			for (int s = 1; s < shards; s++) {
+				if (load[s] < load[lightest]) {
+					lightest = s;
+				}
+			}
+			assignment[i] = lightest;
+			load[lightest] += Math.max(1, timings.getOrDefault(keys.get(i), fallback));
+		}
+		return assignment;
+	}
+
+}
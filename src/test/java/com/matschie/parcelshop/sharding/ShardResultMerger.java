@@ -0,0 +1,98 @@
+package com.matschie.parcelshop.sharding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.matschie.parcelshop.reporting.ExtentReportManager;
+
+/**
+ * Combines the result files of several shards into one report in {@code target/}.
+ * Each argument is a directory holding one or more shard outputs (typically the downloaded
+ * {@code target} folders of each CI runner); they are searched recursively for:
+ * <ul>
+ * <li>{@code allure-results/*} - copied into {@code target/allure-results} (file names are unique per result)</li>
+ * <li>{@code ExtentEvents_*.ndjson} - rendered together into a single Extent HTML report, whose timing summary
+ *     adds up the HTTP latency histograms of every shard per endpoint</li>
+ * <li>{@code *.shard-i-of-N.json} timings - folded into the shared scenario timings file</li>
+ * </ul>
+ */
+public final class ShardResultMerger {
+
+	private static final Logger LOGGER = Logger.getLogger(ShardResultMerger.class.getName());
+	private static final Path ALLURE_RESULTS = Paths.get("target/allure-results");
+
+	private ShardResultMerger() {
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Usage: ShardResultMerger <shard-output-dir>...");
+		}
+		final List<Path> files = new ArrayList<>();
+		for (String arg : args) {
+			try (Stream<Path> walk = Files.walk(Paths.get(arg))) {
+				walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to scan shard output '" + arg + "'", e);
+			}
+		}
+
+		mergeTimings(files);
+		mergeAllureResults(files);
+		mergeExtentReports(files);
+	}
+
+	private static void mergeTimings(List<Path> files) {
+		final Path shared = ScenarioTimings.timingsFile();
+		final Map<String, Long> timings = ScenarioTimings.load(shared);
+		int merged = 0;
+		for (Path file : files) {
+			if (file.getFileName().toString().matches(".*\\.shard-\\d+-of-\\d+\\.json")) {
+				timings.putAll(ScenarioTimings.load(file));
+				merged++;
+			}
+		}
+		if (merged > 0) {
+			ScenarioTimings.save(shared, timings);
+		}
+		LOGGER.info("Merged " + merged + " shard timing files into " + shared);
+	}
+
+	private static void mergeAllureResults(List<Path> files) {
+		final Path target = ALLURE_RESULTS.toAbsolutePath().normalize();
+		int copied = 0;
+		try {
+			Files.createDirectories(target);
+			for (Path file : files) {
+				final Path parent = file.toAbsolutePath().normalize().getParent();
+				if (parent.getFileName().toString().equals("allure-results") && !parent.equals(target)) {
+					Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+					copied++;
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to merge Allure results into " + target, e);
+		}
+		LOGGER.info("Copied " + copied + " Allure result files into " + target);
+	}
+
+	private static void mergeExtentReports(List<Path> files) {
+		final List<Path> eventLogs = files.stream()
+				.filter(file -> file.getFileName().toString().matches("ExtentEvents_.*\\.ndjson"))
+				.toList();
+		if (!eventLogs.isEmpty()) {
+			ExtentReportManager.render(eventLogs);
+		}
+		LOGGER.info("Rendered Extent report from " + eventLogs.size() + " event logs");
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.matschie.parcelshop.soak;
+
+import java.util.List;
+
+/**
+ * Flags sustained upward drift in a time series of soak snapshots, such as heap-after-GC growing with
+ * every interval or p99 latency creeping up. The first snapshots are treated as warm-up and ignored.
+ * A series drifts when both hold:
+ * <ul>
+ * <li>the least-squares trend over the run grows the metric by at least the threshold percentage
+ *     of its starting level;</li>
+ * <li>the growth is consistent: at least 70% of all snapshot pairs (earlier, later) increase,
+ *     so a single spike or GC-timing noise does not count.</li>
+ * </ul>
+ */
+final class DriftDetector {
+
+	private static final double WARM_UP_FRACTION = 0.2;
+	private static final int MIN_POINTS = 5;
+	private static final double MIN_CONCORDANCE = 0.7;
+
+	private DriftDetector() {
+	}
+
+	/**
+	 * @param metric metric name for the message, e.g. "heap after GC (MB)"
+	 * @param series one value per snapshot, in time order
+	 * @param thresholdPercent growth over the run that counts as drift
+	 * @return description of the drift, or null if none was detected
+	 */
+	static String detect(String metric, List<Double> series, double thresholdPercent) {
+		final int skip = (int) Math.ceil(series.size() * WARM_UP_FRACTION);
+		final List<Double> points = series.subList(Math.min(skip, series.size()), series.size());
+		final int n = points.size();
+		if (n < MIN_POINTS) {
+			return null;
+		}
+
+		double meanX = (n - 1) / 2.0;
+		double meanY = 0;
+		for (double y : points) {
+			meanY += y;
+		}
+		meanY /= n;
+		double covariance = 0;
+		double variance = 0;
+		for (int i = 0; i < n; i++) {
+			covariance += (i - meanX) * (points.get(i) - meanY);
+			variance += (i - meanX) * (i - meanX);
+		}
+		final double slope = covariance / variance;
+		final double start = meanY - slope * meanX;
+		final double growth = slope * (n - 1);
+		if (start <= 0 || growth <= 0 || growth / start * 100 < thresholdPercent) {
+			return null;
+		}
+
+		long increasing = 0;
+		long pairs = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				pairs++;
+				if (points.get(j) > points.get(i)) {
+					increasing++;
+				}
+			}
+		}
+		final double concordance = (double) increasing / pairs;
+		if (concordance < MIN_CONCORDANCE) {
+			return null;
+		}
+		return String.format("%s drifted from %.1f to %.1f (+%.0f%%) over %d snapshots; %.0f%% of snapshot pairs increase",
+				metric, start, start + growth, growth / start * 100, n, concordance * 100);
+	}
+
+}
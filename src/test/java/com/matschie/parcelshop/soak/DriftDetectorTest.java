@@ -0,0 +1,60 @@
+package com.matschie.parcelshop.soak;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+public class DriftDetectorTest {
+
+	@Test
+	public void steadyGrowthDrifts() {
+		final String drift = DriftDetector.detect("heap after GC (MB)", series(i -> 100 + 5.0 * i, 20), 20);
+		assertNotNull(drift);
+		assertTrue(drift.startsWith("heap after GC (MB) drifted from"), drift);
+	}
+
+	@Test
+	public void growthBelowThresholdDoesNotDrift() {
+		assertNull(DriftDetector.detect("heap", series(i -> 100 + 0.5 * i, 20), 20));
+	}
+
+	@Test
+	public void flatNoiseDoesNotDrift() {
+		final Random random = new Random(3);
+		assertNull(DriftDetector.detect("heap", series(i -> 100 + random.nextGaussian() * 10, 40), 5));
+	}
+
+	@Test
+	public void singleSpikeDoesNotDrift() {
+		// The spike tilts the trend, but most snapshot pairs do not increase
+		assertNull(DriftDetector.detect("p99", series(i -> i == 18 ? 1000.0 : 100.0, 20), 20));
+	}
+
+	@Test
+	public void warmUpIsIgnored() {
+		// Only the first 20% climb; the rest is flat
+		assertNull(DriftDetector.detect("heap", series(i -> i < 4 ? 10.0 * (i + 1) : 100.0, 20), 20));
+	}
+
+	@Test
+	public void tooFewPointsNeverDrift() {
+		assertNull(DriftDetector.detect("heap", List.of(1.0, 2.0, 3.0, 4.0, 5.0), 1));
+	}
+
+	private interface Value {
+		double at(int index);
+	}
+
+	private static List<Double> series(Value value, int size) {
+		final List<Double> series = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			series.add(value.at(i));
+		}
+		return series;
+	}
+
+}
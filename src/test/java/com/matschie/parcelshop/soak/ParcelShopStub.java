@@ -0,0 +1,125 @@
+package com.matschie.parcelshop.soak;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the parcelshop API, serving synthetic but valid results so long runs can
+ * exercise the whole framework without touching the real backend. Any path answers with a JSON array of
+ * {@code count} parcelshops (default 10) in the area of the {@code postcode} parameter (default EH),
+ * ordered by distance and open 08:00-20:00, after an optional artificial latency.
+ */
+public class ParcelShopStub implements AutoCloseable {
+
+	private static final int DEFAULT_COUNT = 10;
+	private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"};
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Duration latency;
+
+	/**
+	 * Start the stub on a free local port.
+	 * @param latency artificial delay per request (zero for none)
+	 * @param threads request handler threads
+	 * @throws IOException if the server cannot be bound
+	 */
+	public ParcelShopStub(Duration latency, int threads) throws IOException {
+		this.latency = latency;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	/**
+	 * @return base URI of the running stub, e.g. "http://127.0.0.1:43121"
+	 */
+	public String getBaseUri() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!latency.isZero()) {
+				Thread.sleep(latency.toMillis());
+			}
+			final Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+			final int count = Integer.parseInt(params.getOrDefault("count", String.valueOf(DEFAULT_COUNT)));
+			final String area = params.getOrDefault("postcode", "EH").replaceAll("[^A-Za-z].*$", "").toUpperCase();
+			final byte[] body = generate(count, area.isEmpty() ? "EH" : area).toString().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			exchange.sendResponseHeaders(500, -1);
+		}
+	}
+
+	private static Map<String, String> parseQuery(String query) {
+		final Map<String, String> params = new HashMap<>();
+		if (query == null) {
+			return params;
+		}
+		for (String pair : query.split("&")) {
+			final int eq = pair.indexOf('=');
+			if (eq > 0) {
+				params.putIfAbsent(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+						URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	private static JSONArray generate(int count, String area) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		final JSONArray parcelShops = new JSONArray();
+		double distance = 0;
+		for (int i = 0; i < count; i++) {
+			distance += random.nextDouble(0.05, 0.5);
+			final JSONArray hours = new JSONArray();
+			for (String day : DAYS) {
+				hours.put(new JSONObject().put("dayOfWeek", day).put("openTime", "08:00").put("closeTime", "20:00"));
+			}
+			parcelShops.put(new JSONObject()
+					.put("parcelShopId", "STUB" + random.nextInt(1_000_000))
+					.put("description", "Stub parcelshop " + (i + 1))
+					.put("latitude", 55.9 + random.nextDouble() / 10)
+					.put("longitude", -3.2 + random.nextDouble() / 10)
+					.put("distance", Math.round(distance * 100) / 100.0)
+					.put("address", new JSONObject()
+							.put("line1", (i + 1) + " Stub Street")
+							.put("postCode", area + (1 + random.nextInt(20)) + " " + (1 + random.nextInt(9)) + "AA")
+							.put("countryCode", "GB"))
+					.put("businessHours", hours));
+		}
+		return parcelShops;
+	}
+
+}
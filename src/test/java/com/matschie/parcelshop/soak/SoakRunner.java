@@ -0,0 +1,264 @@
+package com.matschie.parcelshop.soak;
+
+import static com.matschie.general.utils.PropertiesHandlers.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.matschie.api.design.ResponseAPI;
+import com.matschie.api.rest.assured.api.client.PooledBody;
+import com.matschie.general.utils.LatencyHistogram;
+import com.matschie.general.utils.RateLimiter;
+import com.matschie.general.utils.TimingRecorder;
+import com.matschie.general.utils.TimingRecorder.Phase;
+import com.matschie.parcelshop.services.ParcelShopRequestTemplate;
+import com.matschie.parcelshop.services.ParcelShopService;
+
+/**
+ * Soak test: loops the {@link ParcelShopService} call mix (request, status checks, sanity validation,
+ * opening-hours index) for a configured duration and snapshots heap-after-GC, live threads, open sockets
+ * and latency percentiles at a fixed interval into a CSV time series. At the end, each series is checked
+ * for drift ({@link DriftDetector}); the exit code is 1 if any drifted, so a CI job can gate on it.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.matschie.parcelshop.soak.SoakRunner \
+ *     -Dsoak.duration=2h -Dsoak.interval=1m -Dsoak.concurrency=8
+ * </pre>
+ * By default the run targets an in-process {@link ParcelShopStub} ({@code soak.stub=false} for the
+ * configured API), so the numbers describe the framework itself.
+ */
+public class SoakRunner {
+
+	private static final Logger LOGGER = Logger.getLogger(SoakRunner.class.getName());
+
+	private static final String CSV_HEADER = "timestamp,elapsed_s,requests,errors,http_p50_ms,http_p95_ms,http_p99_ms,"
+			+ "http_max_ms,call_p99_ms,heap_after_gc_mb,threads,open_sockets";
+	private static final int MAX_LOGGED_ERRORS = 10;
+
+	/**
+	 * One call of the mix: a postcode district, its town and the postcode area every result must be in.
+	 */
+	private record Call(String postCode, String city, String area) {
+	}
+
+	private static final List<Call> CALL_MIX = List.of(
+			new Call("EH1", "Edinburgh", "EH"),
+			new Call("G1", "Glasgow", "G"),
+			new Call("M1", "Manchester", "M"),
+			new Call("LS1", "Leeds", "LS"));
+
+	/**
+	 * One row of the time series.
+	 */
+	private record Snapshot(Instant timestamp, long elapsedSeconds, long requests, long errors, LatencyHistogram http,
+			LatencyHistogram call, double heapAfterGcMb, int threads, int openSockets) {
+
+		String toCsv() {
+			return String.join(",", timestamp.toString(), String.valueOf(elapsedSeconds), String.valueOf(requests),
+					String.valueOf(errors), millis(http.percentile(50)), millis(http.percentile(95)),
+					millis(http.percentile(99)), millis(http.max()), millis(call.percentile(99)),
+					String.format("%.1f", heapAfterGcMb), String.valueOf(threads), String.valueOf(openSockets));
+		}
+
+		private static String millis(Duration duration) {
+			return String.format("%.1f", duration.toNanos() / 1_000_000.0);
+		}
+	}
+
+	private final LatencyHistogram httpLatency = new LatencyHistogram();
+	private final LatencyHistogram callLatency = new LatencyHistogram();
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	private final List<Snapshot> snapshots = new ArrayList<>();
+
+	public static void main(String[] args) throws Exception {
+		final Duration duration = configDuration("soak.duration", Duration.ofMinutes(10));
+		final Duration interval = configDuration("soak.interval", Duration.ofSeconds(30));
+		final int concurrency = configInt("soak.concurrency", 4);
+		final Path output = Paths.get(config("soak.output") != null ? config("soak.output")
+				: "target/soak/soak-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".csv");
+
+		final boolean drifted;
+		if (configBoolean("soak.stub", true)) {
+			try (ParcelShopStub stub = new ParcelShopStub(configDuration("soak.stub.latency", Duration.ofMillis(20)), concurrency)) {
+				System.setProperty("parcelshop.base.uri", stub.getBaseUri());
+				if (config("parcelshop.base.path") == null) {
+					System.setProperty("parcelshop.base.path", "/enterprise-parcelshop-api/v1/parcelshop");
+				}
+				if (config("parcelshop.api.key") == null) {
+					System.setProperty("parcelshop.api.key", "stub");
+				}
+				reload();
+				LOGGER.info("Soak run against local stub " + stub.getBaseUri());
+				drifted = new SoakRunner().run(duration, interval, concurrency, output);
+			}
+		} else {
+			drifted = new SoakRunner().run(duration, interval, concurrency, output);
+		}
+		System.exit(drifted ? 1 : 0);
+	}
+
+	/**
+	 * @return true if drift was detected in any series
+	 */
+	private boolean run(Duration duration, Duration interval, int concurrency, Path output) throws IOException, InterruptedException {
+		Files.createDirectories(output.toAbsolutePath().getParent());
+		final RateLimiter rateLimiter = new RateLimiter(configInt("soak.rate.per.second", 0));
+		final long start = System.nanoTime();
+		final long end = start + duration.toNanos();
+
+		final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		try (BufferedWriter csv = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			csv.write(CSV_HEADER);
+			csv.newLine();
+			for (int worker = 0; worker < concurrency; worker++) {
+				final int offset = worker;
+				workers.execute(() -> loop(end, offset, rateLimiter));
+			}
+			workers.shutdown();
+
+			while (!workers.awaitTermination(interval.toNanos(), TimeUnit.NANOSECONDS)) {
+				snapshot(start, csv);
+			}
+			// Last, partial interval
+			snapshot(start, csv);
+		} finally {
+			workers.shutdownNow();
+		}
+
+		LOGGER.info("Soak time series written to " + output.toAbsolutePath());
+		return reportDrift();
+	}
+
+	private void loop(long end, int offset, RateLimiter rateLimiter) {
+		final ParcelShopService service = new ParcelShopService();
+		int iteration = offset;
+		while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+			final Call call = CALL_MIX.get(iteration++ % CALL_MIX.size());
+			rateLimiter.acquire();
+			final long callStart = System.nanoTime();
+			try {
+				final ResponseAPI response = service.getParcelShops(ParcelShopRequestTemplate.derive()
+						.addQueryParam("postcode", call.postCode())
+						.addQueryParam("city", call.city())
+						.addQueryParam("count", 10));
+				service.validateResponse(response, 200, "", "application/json");
+				service.validateParcelShopSanity(response, call.area());
+				service.getOpeningHours(response);
+			} catch (AssertionError | RuntimeException e) {
+				if (errors.incrementAndGet() <= MAX_LOGGED_ERRORS) {
+					LOGGER.warning(call + " failed: " + e.getMessage());
+				}
+			} finally {
+				callLatency.record(System.nanoTime() - callStart);
+				requests.incrementAndGet();
+				// Worker threads never finish a step; drain their phases and pooled bodies so they cannot pile up
+				for (Phase phase : TimingRecorder.drain()) {
+					if (TimingRecorder.PHASE_HTTP.equals(phase.name())) {
+						httpLatency.record(phase.nanos());
+					}
+				}
+				PooledBody.releaseAll();
+			}
+		}
+	}
+
+	private void snapshot(long start, BufferedWriter csv) throws IOException {
+		if (configBoolean("soak.gc.before.snapshot", true)) {
+			// Live set only, so heap growth means retained objects rather than garbage not yet collected
+			System.gc();
+		}
+		final Snapshot snapshot = new Snapshot(Instant.now(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+				requests.getAndSet(0), errors.getAndSet(0), httpLatency.snapshotAndReset(), callLatency.snapshotAndReset(),
+				heapAfterGcMb(), ManagementFactory.getThreadMXBean().getThreadCount(), openSockets());
+		snapshots.add(snapshot);
+		csv.write(snapshot.toCsv());
+		csv.newLine();
+		csv.flush();
+		LOGGER.info(String.format("Soak %ds: %d requests, %d errors, http %s, heap after GC %.1f MB, %d threads, %d sockets",
+				snapshot.elapsedSeconds(), snapshot.requests(), snapshot.errors(), snapshot.http(),
+				snapshot.heapAfterGcMb(), snapshot.threads(), snapshot.openSockets()));
+	}
+
+	private boolean reportDrift() {
+		final List<String> findings = new ArrayList<>();
+		addIfDrift(findings, "heap after GC (MB)", snapshots.stream().map(Snapshot::heapAfterGcMb).toList(),
+				configInt("soak.drift.heap.percent", 20));
+		addIfDrift(findings, "live threads", snapshots.stream().map(s -> (double) s.threads()).toList(),
+				configInt("soak.drift.threads.percent", 20));
+		addIfDrift(findings, "open sockets", snapshots.stream().map(s -> (double) s.openSockets()).toList(),
+				configInt("soak.drift.sockets.percent", 50));
+		addIfDrift(findings, "http p99 (ms)", snapshots.stream().map(s -> s.http().percentile(99).toNanos() / 1_000_000.0).toList(),
+				configInt("soak.drift.p99.percent", 50));
+		if (findings.isEmpty()) {
+			LOGGER.info("Soak finished: no drift detected over " + snapshots.size() + " snapshots");
+			return false;
+		}
+		findings.forEach(finding -> LOGGER.severe("Drift: " + finding));
+		return true;
+	}
+
+	private static void addIfDrift(List<String> findings, String metric, List<Double> series, double thresholdPercent) {
+		final String finding = DriftDetector.detect(metric, series, thresholdPercent);
+		if (finding != null) {
+			findings.add(finding);
+		}
+	}
+
+	/**
+	 * @return heap in use right after the most recent collection, summed over heap pools, in MB
+	 */
+	private static double heapAfterGcMb() {
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			final MemoryUsage afterGc = pool.getCollectionUsage();
+			if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+				used += afterGc.getUsed();
+			}
+		}
+		return used / (1024.0 * 1024.0);
+	}
+
+	/**
+	 * @return sockets held by this process (Linux), or -1 where file descriptors cannot be listed
+	 */
+	private static int openSockets() {
+		final Path fds = Paths.get("/proc/self/fd");
+		if (!Files.isDirectory(fds)) {
+			return -1;
+		}
+		try (Stream<Path> entries = Files.list(fds)) {
+			return (int) entries.filter(fd -> {
+				try {
+					return Files.readSymbolicLink(fd).toString().startsWith("socket:");
+				} catch (IOException | UncheckedIOException e) {
+					// Descriptor closed while listing
+					return false;
+				}
+			}).count();
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+}
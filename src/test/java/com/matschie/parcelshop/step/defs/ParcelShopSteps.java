@@ -4,15 +4,33 @@ import static com.matschie.general.utils.PropertiesHandlers.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import com.matschie.api.assertions.JsonAssertion;
 import com.matschie.api.design.ResponseAPI;
+import com.matschie.api.rest.assured.api.client.AllureHttpAttachments;
+import com.matschie.api.rest.assured.api.client.HttpLatency;
+import com.matschie.api.rest.assured.api.client.PooledBody;
+import com.matschie.data.utils.CsvData;
+import com.matschie.general.utils.RateLimiter;
+import com.matschie.parcelshop.fuzz.ContractFuzzer;
+import com.matschie.parcelshop.services.OpeningHours;
+import com.matschie.parcelshop.services.ParcelShopQuery;
+import com.matschie.parcelshop.services.ParcelShopRequestTemplate;
 import com.matschie.parcelshop.services.ParcelShopService;
 
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
 
 /**
  * Step definitions for ParcelShop API BDD scenarios.
@@ -30,94 +48,123 @@ public class ParcelShopSteps {
 	private static final String DEFAULT_CITY = "Edinburgh";
 	private static final int HTTP_OK = 200;
 	private static final int HTTP_NO_CONTENT = 204;
+	private static final int DEFAULT_SWEEP_CONCURRENCY = 4;
+	private static final int DEFAULT_SWEEP_RATE_PER_SECOND = 10;
 
-	private RequestSpecBuilder requestBuilder;
+	private RequestSpecification baseRequest;
 	private ParcelShopService parcelShopService;
+	private ParcelShopQuery query;
 	private ResponseAPI response;
+	private List<OpeningHours> openingHours;
+	private List<String> sweepFailures;
+	private HttpLatency loadRun;
+	private ContractFuzzer.Report fuzzRun;
 	
 	/**
 	 * Initialize resources before each scenario.
 	 * Creates fresh instances to ensure thread safety in parallel execution.
+	 * @param scenario current scenario, whose tags select the Allure HTTP attachment mode
 	 */
 	@Before
-	public void setUp() {
-		requestBuilder = new RequestSpecBuilder();
+	public void setUp(Scenario scenario) {
+		AllureHttpAttachments.beginScenario(scenario.getSourceTagNames());
 		parcelShopService = new ParcelShopService();
+		query = ParcelShopQuery.empty();
 	}
 	
 	/**
 	 * Clean up resources after each scenario.
 	 * Ensures proper cleanup for parallel execution.
+	 * @param scenario current scenario; failed scenarios get full HTTP attachments in 'on-failure' mode
 	 */
 	@After
-	public void tearDown() {
+	public void tearDown(Scenario scenario) {
+		AllureHttpAttachments.endScenario(scenario.isFailed());
+		PooledBody.releaseAll();
 		// Clean up resources
-		requestBuilder = null;
+		baseRequest = null;
 		parcelShopService = null;
+		query = null;
 		response = null;
+		openingHours = null;
+		sweepFailures = null;
+		loadRun = null;
+		fuzzRun = null;
 	}
 
 	/**
 	 * Initialize API client with base configuration.
-	 * Sets up base URI, path, headers, and authentication.
+	 * Uses the shared base URI, path, headers, and authentication template,
+	 * which is resolved and validated once per JVM.
 	 */
 	@Given("I have the enterprise-parcelshop-api")
 	public void i_have_the_enterprise_parcelshop_api() {
-		if (requestBuilder == null) {
-			throw new IllegalStateException("RequestBuilder is null - @Before hook may not have executed");
-		}
-		String baseUri = config("parcelshop.base.uri");
-		String basePath = config("parcelshop.base.path");
-		String apiKey = config("parcelshop.api.key");
-		System.out.println("[DEBUG] Base URI: " + baseUri);
-		System.out.println("[DEBUG] Base Path: " + basePath);
-		System.out.println("[DEBUG] API Key: " + (apiKey != null && !apiKey.isEmpty() ? "<present>" : "<missing>"));
-		if (baseUri == null || baseUri.isEmpty()) {
-			throw new IllegalStateException("Base URI is not set! Check config.properties and property loading in pipeline.");
-		}
-		if (basePath == null || basePath.isEmpty()) {
-			throw new IllegalStateException("Base Path is not set! Check config.properties and property loading in pipeline.");
-		}
-		if (apiKey == null || apiKey.isEmpty()) {
-			throw new IllegalStateException("API Key is not set! Check config.properties and property loading in pipeline.");
-		}
-		requestBuilder.setBaseUri(baseUri);
-		requestBuilder.setBasePath(basePath);
-		requestBuilder.addHeader("Content-Type", "application/json");
-		requestBuilder.addHeader("apikey", apiKey);
+		baseRequest = ParcelShopRequestTemplate.get();
 	}
 
 	/**
 	 * Submit API request with specified query parameter.
 	 * Automatically adds required location parameters for API calls.
+	 * The request is only described here; it is sent once, by the first step that reads the response.
 	 * @param paramKey parameter name
 	 * @param paramValue parameter value
 	 */
 	@When("I submit a request with query parameter {string} as {string}")
 	public void i_submit_a_request_with_query_parameter_as(String paramKey, String paramValue) {
 		if (PARAM_CITY.equals(paramKey)) {
-			requestBuilder.addQueryParam(PARAM_POSTCODE, paramValue);
-			requestBuilder.addQueryParam(PARAM_CITY, paramValue);
+			query = query.with(PARAM_POSTCODE, paramValue).with(PARAM_CITY, paramValue);
 		} else if (PARAM_COUNT.equals(paramKey)) {
-			requestBuilder.addQueryParam(PARAM_POSTCODE, DEFAULT_CITY);
-			requestBuilder.addQueryParam(PARAM_CITY, DEFAULT_CITY);
-			requestBuilder.addQueryParam(paramKey, paramValue);
+			query = query.with(PARAM_POSTCODE, DEFAULT_CITY).with(PARAM_CITY, DEFAULT_CITY).with(paramKey, paramValue);
 		} else {
-			requestBuilder.addQueryParam(paramKey, paramValue);
+			query = query.with(paramKey, paramValue);
 		}
-		response = parcelShopService.getParcelShops(requestBuilder);
+		response = null;
 	}
 
 	/**
 	 * Add additional query parameter to existing request.
-	 * Used for chaining multiple parameters in BDD scenarios.
+	 * Used for chaining multiple parameters in BDD scenarios; no extra request is sent.
 	 * @param paramKey parameter name
 	 * @param paramValue parameter value
 	 */
 	@When("query parameter {string} as {string}")
 	public void query_parameter_as(String paramKey, String paramValue) {
-		requestBuilder.addQueryParam(paramKey, paramValue);
-		response = parcelShopService.getParcelShops(requestBuilder);
+		query = query.with(paramKey, paramValue);
+		response = null;
+	}
+
+	/**
+	 * @return fresh request builder derived from this scenario's base request
+	 */
+	private RequestSpecBuilder derive() {
+		if (baseRequest == null) {
+			throw new IllegalStateException("Base request is not set - 'Given I have the enterprise-parcelshop-api' must run first");
+		}
+		return new RequestSpecBuilder().addRequestSpecification(baseRequest);
+	}
+
+	/**
+	 * Send the request described by the When-steps on first use and reuse the response afterwards.
+	 * @return response for the current query
+	 */
+	private ResponseAPI response() {
+		if (response == null) {
+			response = parcelShopService.getParcelShops(query.applyTo(derive()));
+			openingHours = null;
+		}
+		return response;
+	}
+
+	/**
+	 * Index the business hours of the current response on first use and reuse the index afterwards.
+	 * @return one index per parcelshop, in response order
+	 */
+	private List<OpeningHours> openingHours() {
+		if (openingHours == null) {
+			parcelShopService.validateResponse(response(), HTTP_OK, "", "application/json");
+			openingHours = parcelShopService.getOpeningHours(response());
+		}
+		return openingHours;
 	}
 
 	/**
@@ -127,7 +174,7 @@ public class ParcelShopSteps {
 	 */
 	@Then("I receive a response with only {string} parcelshops")
 	public void i_receive_a_response_with_only_parcelshops(String expectedCount) {
-		final int statusCode = response.getStatusCode();
+		final int statusCode = response().getStatusCode();
 		
 		// Handle 204 No Content when no results found
 		if (statusCode == HTTP_NO_CONTENT) {
@@ -137,8 +184,8 @@ public class ParcelShopSteps {
 			return;
 		}
 		
-		parcelShopService.validateResponse(response, HTTP_OK, "", "application/json");
-		final int actualCount = parcelShopService.getParcelShopCount(response);
+		parcelShopService.validateResponse(response(), HTTP_OK, "", "application/json");
+		final int actualCount = parcelShopService.getParcelShopCount(response());
 		final int expected = Integer.parseInt(expectedCount);
 		assertThat(actualCount, equalTo(expected));
 	}
@@ -149,8 +196,8 @@ public class ParcelShopSteps {
 	 */
 	@Then("I receive a response with parcelshops whose address.postCode field starts with {string}")
 	public void i_receive_a_response_with_parcelshops_whose_address_post_code_field_starts_with(String postCodePrefix) {
-		parcelShopService.validateResponse(response, HTTP_OK, "", "application/json");
-		parcelShopService.validateAllPostCodesStartWith(response, postCodePrefix);
+		parcelShopService.validateResponse(response(), HTTP_OK, "", "application/json");
+		parcelShopService.validateAllPostCodesStartWith(response(), postCodePrefix);
 	}
 
 	/**
@@ -159,7 +206,7 @@ public class ParcelShopSteps {
 	 */
 	@Then("the size of the response array is {string}")
 	public void the_size_of_the_response_array_is(String expectedSize) {
-		final int actualCount = parcelShopService.getParcelShopCount(response);
+		final int actualCount = parcelShopService.getParcelShopCount(response());
 		final int expected = Integer.parseInt(expectedSize);
 		assertThat(
 			"Response array size mismatch", 
@@ -168,4 +215,209 @@ public class ParcelShopSteps {
 		);
 	}
 
+	/**
+	 * Validate that parcelshops are ordered by the given numeric or text field, ascending.
+	 * @param field field path relative to each parcelshop (e.g. 'distance', 'address.postCode')
+	 */
+	@Then("the parcelshops are sorted by {string}")
+	public void the_parcelshops_are_sorted_by(String field) {
+		parcelShopService.validate(response(), JsonAssertion.that("$[*]." + field).isSortedAscending());
+	}
+
+	/**
+	 * Validate every parcelshop (postcode prefix, UK coordinates, opening hours, distance ordering)
+	 * and report all violations together.
+	 * @param postCodePrefix expected postcode prefix (e.g., 'EH')
+	 */
+	@Then("every parcelshop passes the sanity checks for postcode prefix {string}")
+	public void every_parcelshop_passes_the_sanity_checks_for_postcode_prefix(String postCodePrefix) {
+		parcelShopService.validateResponse(response(), HTTP_OK, "", "application/json");
+		parcelShopService.validateParcelShopSanity(response(), postCodePrefix);
+	}
+
+	/**
+	 * Validate that the response holds the reference parcelshops nearest to a postcode centroid
+	 * and that reported distances agree with the computed great-circle distances.
+	 * @param latitude centroid latitude
+	 * @param longitude centroid longitude
+	 * @param tolerance allowed distance error, in the API's distance unit ({@code parcelshop.distance.unit})
+	 */
+	@Then("the parcelshops are the nearest reference parcelshops to {double}, {double} within {double}")
+	public void the_parcelshops_are_the_nearest_reference_parcelshops_to_within(Double latitude, Double longitude, Double tolerance) {
+		parcelShopService.validateResponse(response(), HTTP_OK, "", "application/json");
+		parcelShopService.validateNearestTo(response(), latitude, longitude, tolerance);
+	}
+
+	/**
+	 * Validate that every parcelshop is open at the given time.
+	 * @param day day of week, e.g. 'Saturday'
+	 * @param time time of day, e.g. '10:30'
+	 */
+	@Then("every parcelshop is open on {string} at {string}")
+	public void every_parcelshop_is_open_on_at(String day, String time) {
+		final DayOfWeek dayOfWeek = DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+		final LocalTime localTime = LocalTime.parse(time.trim());
+		parcelShopService.validateOpeningHours(openingHours(), "open on " + dayOfWeek + " at " + localTime,
+			hours -> hours.isOpenAt(dayOfWeek, localTime));
+	}
+
+	/**
+	 * Validate that every parcelshop opens at some time on the given day.
+	 * @param day day of week, e.g. 'Sunday'
+	 */
+	@Then("every parcelshop is open on {string}")
+	public void every_parcelshop_is_open_on(String day) {
+		final DayOfWeek dayOfWeek = DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+		parcelShopService.validateOpeningHours(openingHours(), "open on " + dayOfWeek, hours -> hours.isOpenOn(dayOfWeek));
+	}
+
+	/**
+	 * Validate that enough parcelshops stay open after the given time (late opening).
+	 * @param minimum minimum number of parcelshops
+	 * @param day day of week, e.g. 'Friday'
+	 * @param time time of day, e.g. '20:00'
+	 */
+	@Then("at least {int} parcelshop(s) is/are open on {string} after {string}")
+	public void at_least_parcelshops_are_open_on_after(Integer minimum, String day, String time) {
+		final DayOfWeek dayOfWeek = DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+		final LocalTime localTime = LocalTime.parse(time.trim());
+		final List<OpeningHours> lateOpening = parcelShopService.filterByOpeningHours(openingHours(),
+			hours -> hours.isOpenAfter(dayOfWeek, localTime));
+		assertThat(
+			"Parcelshops open on " + dayOfWeek + " after " + localTime + ": " + lateOpening,
+			lateOpening.size(),
+			greaterThanOrEqualTo(minimum)
+		);
+	}
+
+	/**
+	 * Query every postcode area listed in a classpath dataset (data/&lt;dataset&gt;.csv).
+	 * Rows are streamed lazily and requested in parallel under a rate limit
+	 * ({@code sweep.concurrency}, {@code sweep.rate.per.second}).
+	 * @param dataset dataset name, e.g. 'postcode-areas'
+	 * @param paramKey extra query parameter sent with every request
+	 * @param paramValue extra query parameter value
+	 */
+	@When("I sweep every postcode area in {string} with query parameter {string} as {string}")
+	public void i_sweep_every_postcode_area_in_with_query_parameter_as(String dataset, String paramKey, String paramValue) {
+		final RateLimiter rateLimiter = new RateLimiter(configInt("sweep.rate.per.second", DEFAULT_SWEEP_RATE_PER_SECOND));
+		try (Stream<String[]> areas = new CsvData().stream(dataset)) {
+			sweepFailures = parcelShopService.sweepPostCodeAreas(
+				() -> derive().addQueryParam(paramKey, paramValue),
+				areas,
+				configInt("sweep.concurrency", DEFAULT_SWEEP_CONCURRENCY),
+				rateLimiter);
+		}
+	}
+
+	/**
+	 * Validate that the postcode sweep found no area with out-of-area or missing parcelshops.
+	 */
+	@Then("every postcode area returns parcelshops whose address.postCode field starts with the area")
+	public void every_postcode_area_returns_parcelshops_whose_address_post_code_field_starts_with_the_area() {
+		if (sweepFailures == null) {
+			throw new IllegalStateException("No postcode sweep - 'When I sweep every postcode area in ...' must run first");
+		}
+		assertThat(
+			"Postcode areas failing validation:\n" + String.join("\n", sweepFailures),
+			sweepFailures,
+			empty()
+		);
+	}
+
+	/**
+	 * Validate the response time of the current request as measured by the HTTP client.
+	 * @param maxMillis response time budget in milliseconds
+	 */
+	@Then("the response time is below {int} ms")
+	public void the_response_time_is_below_ms(Integer maxMillis) {
+		final long actual = response().getResponseTime().toMillis();
+		assertThat(
+			"Response time in ms",
+			actual,
+			lessThan(maxMillis.longValue())
+		);
+	}
+
+	/**
+	 * Send the request described by the When-steps repeatedly from parallel workers and keep
+	 * the latency distribution for the SLO steps that follow.
+	 * @param requests total number of requests
+	 * @param concurrency number of parallel requests
+	 */
+	@When("I send {int} requests with concurrency {int}")
+	public void i_send_requests_with_concurrency(Integer requests, Integer concurrency) {
+		final ParcelShopQuery current = query;
+		loadRun = parcelShopService.sendRequests(() -> current.applyTo(derive()), requests, concurrency);
+	}
+
+	/**
+	 * Validate a latency percentile of the load run.
+	 * @param percentile percentile, e.g. 95
+	 * @param maxMillis latency budget in milliseconds
+	 */
+	@Then("p{int} latency is below {int} ms")
+	public void p_latency_is_below_ms(Integer percentile, Integer maxMillis) {
+		assertThat(
+			"p" + percentile + " latency in ms of " + loadRun(),
+			loadRun().percentile(percentile).toMillis(),
+			lessThan(maxMillis.longValue())
+		);
+	}
+
+	/**
+	 * Validate a latency percentile and the error rate of the load run.
+	 * @param percentile percentile, e.g. 95
+	 * @param maxMillis latency budget in milliseconds
+	 * @param maxErrorRate error rate budget in percent
+	 */
+	@Then("p{int} latency is below {int} ms and error rate below {double}%")
+	public void p_latency_is_below_ms_and_error_rate_below(Integer percentile, Integer maxMillis, Double maxErrorRate) {
+		p_latency_is_below_ms(percentile, maxMillis);
+		assertThat(
+			"Error rate in % of " + loadRun(),
+			loadRun().errorRate(),
+			lessThan(maxErrorRate)
+		);
+	}
+
+	/**
+	 * Send generated valid and edge-case queries from parallel workers, checking the response contract
+	 * of each and shrinking failing queries to minimal reproductions. The seed is {@code fuzz.seed} if
+	 * configured, random otherwise, and is logged either way.
+	 * @param cases number of generated queries
+	 * @param concurrency number of parallel requests
+	 */
+	@When("I fuzz {int} generated queries with concurrency {int}")
+	public void i_fuzz_generated_queries_with_concurrency(Integer cases, Integer concurrency) {
+		final String configuredSeed = config("fuzz.seed");
+		final long seed = configuredSeed == null || configuredSeed.isBlank() ? System.nanoTime() : Long.parseLong(configuredSeed.trim());
+		fuzzRun = new ContractFuzzer(parcelShopService, this::derive).run(cases, concurrency, seed);
+	}
+
+	/**
+	 * Validate that no generated query broke the contract.
+	 */
+	@Then("every generated query satisfies the parcelshop contract")
+	public void every_generated_query_satisfies_the_parcelshop_contract() {
+		if (fuzzRun == null) {
+			throw new IllegalStateException("No fuzz run - 'When I fuzz N generated queries with concurrency C' must run first");
+		}
+		assertThat(
+			"Minimal failing queries of " + fuzzRun + " (-Dfuzz.seed=" + fuzzRun.seed() + " to reproduce)",
+			fuzzRun.failures(),
+			empty()
+		);
+	}
+
+	/**
+	 * @return latency of the last load run
+	 */
+	private HttpLatency loadRun() {
+		if (loadRun == null) {
+			throw new IllegalStateException("No load run - 'When I send N requests with concurrency C' must run first");
+		}
+		return loadRun;
+	}
+
 }